@@ -0,0 +1,58 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.Loader;
+import org.example.FleetGenerator;
+import org.example.FleetJsonWriter;
+import org.example.FleetTable;
+import org.example.PlanResult;
+import org.example.SelectionEngine;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A seeded synthetic fleet in every form the phase benchmarks start from: the JSON document,
+ * the columnar table, a built CP-SAT model and a solved plan.
+ */
+@State(Scope.Benchmark)
+public class FleetState {
+
+    @Param({"25", "1000", "10000", "100000"})
+    public int fleetSize;
+
+    /** Cleaning slots as a fraction of the fleet size. */
+    @Param({"0.05", "0.2", "0.5"})
+    public double slotRatio;
+
+    public final ObjectMapper mapper = new ObjectMapper();
+    public byte[] json;
+    public FleetTable fleet;
+    public SelectionEngine closedFormEngine;
+    public SelectionEngine cpSatEngine;
+    public SelectionEngine.SelectionModel model;
+    public PlanResult plan;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Loader.loadNativeLibraries();
+
+        FleetGenerator generator = new FleetGenerator(42, fleetSize).slotRatio(slotRatio);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FleetJsonWriter writer = new FleetJsonWriter(mapper, out)) {
+            generator.generate(writer);
+        }
+        json = out.toByteArray();
+        fleet = new FleetTable();
+        generator.generate(fleet);
+        closedFormEngine = new SelectionEngine();
+        // A no-op extension is enough to force the CP-SAT path.
+        cpSatEngine = new SelectionEngine().addExtension((model, table, isAssigned) -> { });
+        model = cpSatEngine.buildModel(fleet);
+        plan = closedFormEngine.solve(fleet);
+    }
+}
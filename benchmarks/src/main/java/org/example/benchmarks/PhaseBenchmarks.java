@@ -0,0 +1,72 @@
+package org.example.benchmarks;
+
+import org.example.FleetStreamReader;
+import org.example.FleetTable;
+import org.example.Main;
+import org.example.PlanResult;
+import org.example.SelectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per phase of a plan, so a regression in any of them shows up on its own:
+ * parsing, CP-SAT model construction, solving (native and closed-form) and result categorisation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmarks {
+
+    // --- Parse ---
+
+    @Benchmark
+    public Main.InputData parseDatabind(FleetState state) throws IOException {
+        return state.mapper.readValue(state.json, Main.InputData.class);
+    }
+
+    @Benchmark
+    public FleetTable parseStreaming(FleetState state) throws IOException {
+        FleetTable fleet = new FleetTable();
+        new FleetStreamReader(state.mapper).read(new ByteArrayInputStream(state.json), fleet);
+        return fleet;
+    }
+
+    // --- Model build ---
+
+    @Benchmark
+    public SelectionEngine.SelectionModel buildModel(FleetState state) {
+        return state.cpSatEngine.buildModel(state.fleet);
+    }
+
+    // --- Solve ---
+
+    @Benchmark
+    public PlanResult solveCpSat(FleetState state) {
+        return state.cpSatEngine.solveModel(state.model);
+    }
+
+    @Benchmark
+    public PlanResult solveClosedForm(FleetState state) {
+        return state.closedFormEngine.solve(state.fleet);
+    }
+
+    // --- Report ---
+
+    @Benchmark
+    public void categorise(FleetState state, Blackhole blackhole) {
+        blackhole.consume(state.plan.getAssignedForCleaning());
+        blackhole.consume(state.plan.getGoingToService());
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves many independent instances (one per depot or per planning day) side by side.
+ *
+ * <p>Each instance is turned into a fleet table and, if the engine needs CP-SAT, a model, on the solver's
+ * executor, and then solved on the same thread. The executor is shared by every batch and never has more threads
+ * than there are cores, and the CP-SAT worker count of every instance is capped so that
+ * {@code threads * workersPerInstance} never exceeds the available cores, however many batches run at once.
+ * With {@link SolveSlots}, every instance also holds one slot per worker it may use while it solves, so batches
+ * share the machine with other solves. Results come back in submission order.
+ */
+public class BatchSolver implements Closeable {
+
+    private final SelectionEngine engine;
+    private final SolveSlots slots;
+    private final int workersPerInstance;
+    private final ExecutorService executor;
+
+    /**
+     * @param parallelism the number of instances in flight at once, at most one per available core;
+     *                    0 means one per available core.
+     */
+    public BatchSolver(SelectionEngine engine, int parallelism) {
+        this(engine, parallelism, null);
+    }
+
+    /**
+     * Like {@link #BatchSolver(SelectionEngine, int)}, with every instance waiting for solve slots first.
+     *
+     * @param slots the slots to take before each solve; null means none.
+     */
+    public BatchSolver(SelectionEngine engine, int parallelism, SolveSlots slots) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = parallelism > 0 ? Math.min(parallelism, cores) : cores;
+        this.engine = engine;
+        this.slots = slots;
+        this.workersPerInstance = Math.max(1, cores / threads);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-solver-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<PlanResult> solveAll(List<Main.InputData> batch) {
+        return solveAll(batch, null);
+    }
+
+    /**
+     * Like {@link #solveAll(List)}, with every instance bounded by the handle's deadline. An instance that is
+     * still waiting for a slot at the deadline is not solved; its plan has no assignment and is marked
+     * {@link PlanResult#interrupted}.
+     *
+     * @param handle supplies the deadline; null means none. Its cancellation is not observed.
+     */
+    public List<PlanResult> solveAll(List<Main.InputData> batch, SolveHandle handle) {
+        List<Future<PlanResult>> futures = new ArrayList<>(batch.size());
+        try {
+            for (Main.InputData data : batch) {
+                futures.add(executor.submit(() -> solveOne(data, handle)));
+            }
+            List<PlanResult> results = new ArrayList<>(batch.size());
+            for (Future<PlanResult> future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            for (Future<PlanResult> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private PlanResult solveOne(Main.InputData data, SolveHandle batchHandle) {
+        if (data == null || data.config == null || data.trains == null) {
+            throw new IllegalArgumentException("Every batch entry must contain 'config' and 'trains'");
+        }
+        FleetTable fleet = FleetTable.of(data);
+        // A handle runs one solve at a time, so every instance gets its own with the batch's deadline.
+        SolveHandle handle = batchHandle == null ? null : batchHandle.sameDeadline();
+        if (slots != null && !slots.acquire(handle, workersPerInstance)) {
+            return PlanResult.stopped(fleet);
+        }
+        try {
+            return engine.solve(fleet, SelectionEngine.weightsOf(fleet.config()), workersPerInstance, handle);
+        } finally {
+            if (slots != null) {
+                slots.release(workersPerInstance);
+            }
+        }
+    }
+
+    private static PlanResult await(Future<PlanResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the batch", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package org.example;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.CumulativeConstraint;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.IntervalVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedules tonight's cleanings into the depot's bays and shift windows, instead of treating
+ * {@code numCleaningSlots} as a plain count.
+ *
+ * <p>Every candidate train takes {@link FleetTable#cleaningMinutes(int)} in one bay, and must start and finish
+ * inside that bay's shift. Bays with the same shift window are interchangeable, so rather than giving each of
+ * them its own variables (which lets the search try every permutation of identical bays) they are merged into
+ * one group: a train gets an optional interval per group, and the group's bays become the capacity of a
+ * cumulative constraint (a no-overlap constraint for a group of one). With unit demands a schedule that fits the
+ * capacity can always be laid out over the concrete bays, which {@link #schedule(FleetTable)} does greedily by
+ * start time afterwards. A 25-bay depot with one shift pattern is thus a single resource, however many trains it has.
+ *
+ * <p>{@code config.cleaningCrews}, if set below the number of bays, caps the cleanings in progress at any moment
+ * across all groups. The objective and the registered model extensions are those of the engine's own model, but
+ * the search is seeded with a complete greedy schedule rather than with the previous plan, which says nothing
+ * about bays or start times. {@code numCleaningSlots} is not used. Only the weighted objective mode is supported.
+ */
+public class BayScheduler {
+
+    /**
+     * One cleaning: which train, in which bay, from when until when (minutes into the night).
+     */
+    public static class Booking {
+        public String trainId;
+        public String bayId;
+        public int start;
+        public int end;
+    }
+
+    /**
+     * Tonight's cleanings by bay, then by start time.
+     */
+    public static class Schedule {
+        public CpSolverStatus status;
+        public double objectiveValue;
+        public List<Booking> bookings = new ArrayList<>();
+        public SolveStatistics statistics;
+    }
+
+    // Bays sharing one shift window.
+    private static final class BayGroup {
+        final int shiftStart;
+        final int shiftEnd;
+        final List<Main.Bay> bays = new ArrayList<>();
+
+        BayGroup(int shiftStart, int shiftEnd) {
+            this.shiftStart = shiftStart;
+            this.shiftEnd = shiftEnd;
+        }
+    }
+
+    private final SelectionEngine engine;
+
+    public BayScheduler(SelectionEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Chooses the trains to clean tonight and books each of them into a bay.
+     *
+     * @throws IllegalArgumentException if the fleet has no config, the config has no bays, a bay's shift is empty,
+     *                                  a candidate's cleaning duration is not positive, or the objective is
+     *                                  lexicographic.
+     */
+    public Schedule schedule(FleetTable fleet) {
+        Main.Config config = fleet.config();
+        if (config == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        if (config.bays == null || config.bays.isEmpty()) {
+            throw new IllegalArgumentException("Bay scheduling needs 'config.bays'");
+        }
+        if (config.objective == Main.ObjectiveMode.LEXICOGRAPHIC) {
+            throw new IllegalArgumentException("Bay scheduling needs the weighted objective");
+        }
+        List<BayGroup> groups = group(config.bays);
+        int[] candidates = fleet.requiresCleaning.stream().toArray();
+
+        // Time is modelled in units of the largest step that divides every shift boundary and duration, e.g.
+        // quarter hours; smaller domains make for a much smaller search.
+        int unit = 0;
+        for (BayGroup group : groups) {
+            unit = gcd(gcd(unit, group.shiftStart), group.shiftEnd);
+        }
+        int[] duration = new int[candidates.length];
+        for (int c = 0; c < candidates.length; c++) {
+            int minutes = fleet.cleaningMinutes(candidates[c]);
+            if (minutes <= 0) {
+                throw new IllegalArgumentException("Cleaning duration must be positive: " + fleet.id(candidates[c]));
+            }
+            duration[c] = minutes;
+            unit = gcd(unit, minutes);
+        }
+        for (int c = 0; c < candidates.length; c++) {
+            duration[c] /= unit;
+        }
+
+        CpModel model = new CpModel();
+        IntVar[] isAssigned = new IntVar[fleet.size()];
+        // Candidate index x group index -> presence literal and start of the train's interval, null where it cannot fit.
+        BoolVar[][] inGroup = new BoolVar[candidates.length][groups.size()];
+        IntVar[][] start = new IntVar[candidates.length][groups.size()];
+        List<List<IntervalVar>> intervals = new ArrayList<>();
+        // Busy time per group and across all groups, for the linear capacity constraints below.
+        LinearExprBuilder[] busyTime = new LinearExprBuilder[groups.size()];
+        LinearExprBuilder busyCrews = LinearExpr.newBuilder();
+        for (int g = 0; g < groups.size(); g++) {
+            intervals.add(new ArrayList<>());
+            busyTime[g] = LinearExpr.newBuilder();
+        }
+        CumulativeConstraint crews = config.cleaningCrews > 0 && config.cleaningCrews < config.bays.size()
+                ? model.addCumulative(config.cleaningCrews) : null;
+
+        for (int c = 0; c < candidates.length; c++) {
+            int i = candidates[c];
+            BoolVar assigned = model.newBoolVar("isAssigned_" + fleet.id(i));
+            isAssigned[i] = assigned;
+            List<BoolVar> choices = new ArrayList<>();
+            for (int g = 0; g < groups.size(); g++) {
+                BayGroup group = groups.get(g);
+                int shiftStart = group.shiftStart / unit;
+                int shiftEnd = group.shiftEnd / unit;
+                if (duration[c] > shiftEnd - shiftStart) {
+                    continue;
+                }
+                String suffix = fleet.id(i) + "_g" + g;
+                inGroup[c][g] = model.newBoolVar("inGroup_" + suffix);
+                start[c][g] = model.newIntVar(shiftStart, shiftEnd - duration[c], "start_" + suffix);
+                IntervalVar interval = model.newOptionalFixedSizeIntervalVar(start[c][g], duration[c], inGroup[c][g],
+                        "cleaning_" + suffix);
+                intervals.get(g).add(interval);
+                busyTime[g].addTerm(inGroup[c][g], duration[c]);
+                busyCrews.addTerm(inGroup[c][g], duration[c]);
+                if (crews != null) {
+                    crews.addDemand(interval, 1);
+                }
+                choices.add(inGroup[c][g]);
+            }
+            // A train is cleaned in exactly one group if it is assigned, and nowhere otherwise.
+            model.addEquality(LinearExpr.sum(choices.toArray(new BoolVar[0])), assigned);
+        }
+
+        for (int g = 0; g < groups.size(); g++) {
+            BayGroup group = groups.get(g);
+            List<IntervalVar> groupIntervals = intervals.get(g);
+            int bays = group.bays.size();
+            if (bays == 1) {
+                model.addNoOverlap(groupIntervals);
+            } else {
+                CumulativeConstraint capacity = model.addCumulative(bays);
+                for (IntervalVar interval : groupIntervals) {
+                    capacity.addDemand(interval, 1);
+                }
+            }
+            // Redundant with the constraint above, but linear, so the LP relaxation sees the group's capacity too.
+            model.addLessOrEqual(busyTime[g].build(), (long) bays * (group.shiftEnd - group.shiftStart) / unit);
+        }
+        if (crews != null) {
+            int first = Integer.MAX_VALUE;
+            int last = 0;
+            for (BayGroup group : groups) {
+                first = Math.min(first, group.shiftStart);
+                last = Math.max(last, group.shiftEnd);
+            }
+            model.addLessOrEqual(busyCrews.build(), (long) config.cleaningCrews * (last - first) / unit);
+        }
+
+        ObjectiveCoefficients coefficients = ObjectiveCoefficients.of(fleet, SelectionEngine.weightsOf(config));
+        LinearExprBuilder objective = LinearExpr.newBuilder();
+        for (int i : candidates) {
+            objective.addTerm(isAssigned[i], coefficients.coefficient[i]);
+        }
+        objective.add(coefficients.constant());
+        model.maximize(objective.build());
+
+        hintGreedy(model, config, groups, unit, candidates, duration, coefficients.coefficient, isAssigned, inGroup,
+                start);
+        engine.applyExtensions(model, fleet, isAssigned);
+
+        CpSolverResponse response = engine.solveRaw(model, config, candidates.length * groups.size());
+        Schedule schedule = new Schedule();
+        schedule.status = response.getStatus();
+        schedule.statistics = SolveStatistics.from(response, model.model());
+        if (schedule.status != CpSolverStatus.OPTIMAL && schedule.status != CpSolverStatus.FEASIBLE) {
+            return schedule;
+        }
+        schedule.objectiveValue = response.getObjectiveValue();
+
+        for (int g = 0; g < groups.size(); g++) {
+            BayGroup group = groups.get(g);
+            List<Booking> booked = new ArrayList<>();
+            for (int c = 0; c < candidates.length; c++) {
+                if (inGroup[c][g] != null && response.getSolution(inGroup[c][g].getIndex()) == 1) {
+                    int i = candidates[c];
+                    Booking booking = new Booking();
+                    booking.trainId = fleet.id(i);
+                    booking.start = (int) response.getSolution(start[c][g].getIndex()) * unit;
+                    booking.end = booking.start + duration[c] * unit;
+                    booked.add(booking);
+                }
+            }
+            schedule.bookings.addAll(layOut(group, booked));
+        }
+        return schedule;
+    }
+
+    /**
+     * Seeds the search with a list schedule: candidates by decreasing value per minute, each placed after the
+     * bookings already in the bay it fills most tightly (best fit, so that long cleanings still find room later),
+     * at the earliest start a crew is free if crews are capped, or left out if no bay has room.
+     */
+    private static void hintGreedy(CpModel model, Main.Config config, List<BayGroup> groups, int unit,
+                                   int[] candidates, int[] duration, long[] coefficient, IntVar[] isAssigned,
+                                   BoolVar[][] inGroup, IntVar[][] start) {
+        Integer[] order = new Integer[candidates.length];
+        for (int c = 0; c < order.length; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(
+                (Integer c) -> -(double) coefficient[candidates[c]] / duration[c]));
+        int horizon = 0;
+        for (BayGroup group : groups) {
+            horizon = Math.max(horizon, group.shiftEnd / unit);
+        }
+        int[][] freeFrom = new int[groups.size()][];
+        for (int g = 0; g < groups.size(); g++) {
+            freeFrom[g] = new int[groups.get(g).bays.size()];
+            Arrays.fill(freeFrom[g], groups.get(g).shiftStart / unit);
+        }
+        boolean crewsCapped = config.cleaningCrews > 0 && config.cleaningCrews < config.bays.size();
+        int[] crewsBusy = crewsCapped ? new int[horizon] : null;
+
+        for (int c : order) {
+            int i = candidates[c];
+            int length = duration[c];
+            int bestGroup = -1;
+            int bestBay = -1;
+            int bestStart = -1;
+            int bestSlack = Integer.MAX_VALUE;
+            if (coefficient[i] > 0) {
+                for (int g = 0; g < groups.size(); g++) {
+                    if (inGroup[c][g] == null) {
+                        continue;
+                    }
+                    int shiftEnd = groups.get(g).shiftEnd / unit;
+                    for (int b = 0; b < freeFrom[g].length; b++) {
+                        int at = earliestStart(crewsBusy, config.cleaningCrews, freeFrom[g][b], length, shiftEnd);
+                        if (at >= 0 && shiftEnd - at - length < bestSlack) {
+                            bestGroup = g;
+                            bestBay = b;
+                            bestStart = at;
+                            bestSlack = shiftEnd - at - length;
+                        }
+                    }
+                }
+            }
+            model.addHint(isAssigned[i], bestGroup >= 0 ? 1 : 0);
+            for (int g = 0; g < groups.size(); g++) {
+                if (inGroup[c][g] != null) {
+                    model.addHint(inGroup[c][g], g == bestGroup ? 1 : 0);
+                }
+            }
+            if (bestGroup >= 0) {
+                model.addHint(start[c][bestGroup], bestStart);
+                freeFrom[bestGroup][bestBay] = bestStart + length;
+                if (crewsBusy != null) {
+                    for (int t = bestStart; t < bestStart + length; t++) {
+                        crewsBusy[t]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the first start at or after {@code from} that ends by {@code shiftEnd} with a crew free throughout,
+     *         or -1 if there is none.
+     */
+    private static int earliestStart(int[] crewsBusy, int crews, int from, int length, int shiftEnd) {
+        int at = from;
+        while (at + length <= shiftEnd) {
+            if (crewsBusy == null) {
+                return at;
+            }
+            int busy = at;
+            while (busy < at + length && crewsBusy[busy] < crews) {
+                busy++;
+            }
+            if (busy == at + length) {
+                return at;
+            }
+            at = busy + 1;
+        }
+        return -1;
+    }
+
+    private static List<BayGroup> group(List<Main.Bay> bays) {
+        Map<Long, BayGroup> groups = new LinkedHashMap<>();
+        for (Main.Bay bay : bays) {
+            if (bay.shiftStart < 0 || bay.shiftEnd <= bay.shiftStart) {
+                throw new IllegalArgumentException("Bay " + bay.id + " has an invalid shift");
+            }
+            long window = ((long) bay.shiftStart << 32) | (bay.shiftEnd & 0xFFFFFFFFL);
+            groups.computeIfAbsent(window, w -> new BayGroup(bay.shiftStart, bay.shiftEnd)).bays.add(bay);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     * Puts each booking of a group into a concrete bay: by start time, into the first bay that is free by then.
+     * Never more bookings overlap than the group has bays, so a free bay always exists.
+     */
+    private static List<Booking> layOut(BayGroup group, List<Booking> booked) {
+        booked.sort(Comparator.comparingInt((Booking b) -> b.start));
+        int[] freeFrom = new int[group.bays.size()];
+        List<List<Booking>> byBay = new ArrayList<>();
+        for (int b = 0; b < freeFrom.length; b++) {
+            freeFrom[b] = group.shiftStart;
+            byBay.add(new ArrayList<>());
+        }
+        for (Booking booking : booked) {
+            int b = 0;
+            while (freeFrom[b] > booking.start) {
+                b++;
+            }
+            booking.bayId = group.bays.get(b).id;
+            freeFrom[b] = booking.end;
+            byBay.get(b).add(booking);
+        }
+        List<Booking> bookings = new ArrayList<>(booked.size());
+        for (List<Booking> bay : byBay) {
+            bookings.addAll(bay);
+        }
+        return bookings;
+    }
+}
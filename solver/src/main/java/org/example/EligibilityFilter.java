@@ -0,0 +1,118 @@
+package org.example;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps trains that may not run tomorrow out of the fleet before any model sees them.
+ *
+ * <p>A train is withheld if its rolling-stock or signalling certificate is not valid on the service date, or if
+ * it has open job cards. Withheld trains are not forwarded to the downstream sink as trains, so they never become
+ * decision variables, objective terms or columns of a {@link FleetTable}; each one is reported to the sink through
+ * {@link FleetSink#withheld} instead. Everything else passes through unchanged.
+ *
+ * <p>The service date is {@code config.serviceDate} if the config arrives before the trains, otherwise the
+ * default given at construction. A config whose service date contradicts trains already judged is rejected.
+ */
+public class EligibilityFilter implements FleetSink {
+
+    private final FleetSink downstream;
+    private LocalDate serviceDate;
+    private boolean judged;
+
+    /**
+     * Filters against today's date unless the config names another.
+     */
+    public EligibilityFilter(FleetSink downstream) {
+        this(downstream, LocalDate.now());
+    }
+
+    public EligibilityFilter(FleetSink downstream, LocalDate defaultServiceDate) {
+        this.downstream = downstream;
+        this.serviceDate = defaultServiceDate;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code serviceDate} is not an ISO date, or differs from the date
+     *                                  trains have already been checked against.
+     */
+    @Override
+    public void config(Main.Config config) {
+        if (config != null && config.serviceDate != null) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(config.serviceDate);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid 'config.serviceDate': " + config.serviceDate, e);
+            }
+            if (judged && !date.equals(serviceDate)) {
+                throw new IllegalArgumentException("'config.serviceDate' must come before the trains");
+            }
+            serviceDate = date;
+        }
+        downstream.config(config);
+    }
+
+    /**
+     * @throws IllegalArgumentException if one of the train's certificate dates is not an ISO date.
+     */
+    @Override
+    public void train(Main.Train train) {
+        judged = true;
+        String reason = reasonToWithhold(train, serviceDate);
+        if (reason == null) {
+            downstream.train(train);
+        } else {
+            downstream.withheld(train.id, reason);
+        }
+    }
+
+    @Override
+    public void previousAssignment(String trainId, boolean assigned) {
+        downstream.previousAssignment(trainId, assigned);
+    }
+
+    @Override
+    public void withheld(String trainId, String reason) {
+        downstream.withheld(trainId, reason);
+    }
+
+    /**
+     * @return why the train may not run on {@code date}, or null if it may.
+     */
+    static String reasonToWithhold(Main.Train train, LocalDate date) {
+        StringBuilder reason = new StringBuilder();
+        checkCertificate(reason, "rolling-stock", train.rollingStockValidFrom, train.rollingStockValidUntil, date, train.id);
+        checkCertificate(reason, "signalling", train.signallingValidFrom, train.signallingValidUntil, date, train.id);
+        if (train.openJobCards > 0) {
+            append(reason, train.openJobCards + (train.openJobCards == 1 ? " open job card" : " open job cards"));
+        }
+        return reason.length() == 0 ? null : reason.toString();
+    }
+
+    private static void checkCertificate(StringBuilder reason, String certificate, String validFrom, String validUntil,
+                                         LocalDate date, String trainId) {
+        if (validFrom != null && date.isBefore(parse(validFrom, certificate, trainId))) {
+            append(reason, certificate + " certificate not yet valid, valid from " + validFrom);
+        }
+        if (validUntil != null && date.isAfter(parse(validUntil, certificate, trainId))) {
+            append(reason, certificate + " certificate expired, valid until " + validUntil);
+        }
+    }
+
+    private static void append(StringBuilder reason, String part) {
+        if (reason.length() > 0) {
+            reason.append("; ");
+        }
+        reason.append(part);
+    }
+
+    private static LocalDate parse(String date, String certificate, String trainId) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date in the " + certificate + " certificate of " + trainId
+                    + ": " + date, e);
+        }
+    }
+}
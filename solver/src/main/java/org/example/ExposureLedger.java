@@ -0,0 +1,139 @@
+package org.example;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running totals of the exposure each branding contract has accumulated over the days closed so far.
+ *
+ * <p>A contract's wrap is exposed {@code serviceHoursPerDay} hours for every train carrying it that runs that day,
+ * and a train only stays off the road on a day it is cleaned. A day with nothing cleaned therefore adds a fixed
+ * amount per contract, which is computed once; {@link #record} starts from it and subtracts the trains the day's
+ * plan took out of service. Closing a day costs as much as that day's cleanings, never the fleet or the history.
+ * A contract stops accruing once the recorded day is past its {@code endDay}, so its total is what it earned by then.
+ *
+ * <p>Not thread-safe; the owner synchronizes.
+ */
+public class ExposureLedger {
+
+    private final List<Main.BrandingContract> contracts;
+    private final int hoursPerDay;
+    // Fleet position -> index of the train's contract, or -1 if it carries none.
+    private final int[] contractOf;
+    // Contract -> hours it gains on a day with none of its trains cleaned.
+    private final long[] fullDay;
+    // Contract -> hours accumulated over the recorded days up to its end day.
+    private final long[] delivered;
+    // Contract -> the last day that counts towards it.
+    private final int[] endDay;
+    private int daysRecorded;
+
+    /**
+     * @throws IllegalArgumentException if two contracts share an id, a minimum or the daily service hours are
+     *                                  negative, or a train names a contract that is not in 'config.contracts'.
+     */
+    public ExposureLedger(FleetTable fleet) {
+        Main.Config config = fleet.config();
+        if (config == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        if (config.serviceHoursPerDay < 0) {
+            throw new IllegalArgumentException("'config.serviceHoursPerDay' must not be negative");
+        }
+        this.contracts = config.contracts == null ? List.of() : config.contracts;
+        this.hoursPerDay = config.serviceHoursPerDay;
+        Map<String, Integer> index = new HashMap<>();
+        for (int c = 0; c < contracts.size(); c++) {
+            Main.BrandingContract contract = contracts.get(c);
+            if (contract.minExposureHours < 0) {
+                throw new IllegalArgumentException("Contract " + contract.id + " has a negative minimum");
+            }
+            if (index.put(contract.id, c) != null) {
+                throw new IllegalArgumentException("Duplicate contract id: " + contract.id);
+            }
+        }
+        this.contractOf = new int[fleet.size()];
+        this.fullDay = new long[contracts.size()];
+        this.delivered = new long[contracts.size()];
+        this.endDay = new int[contracts.size()];
+        for (int c = 0; c < contracts.size(); c++) {
+            endDay[c] = contracts.get(c).endDay;
+        }
+        for (int i = 0; i < fleet.size(); i++) {
+            String id = fleet.brandingContract(i);
+            if (id == null) {
+                contractOf[i] = -1;
+                continue;
+            }
+            Integer c = index.get(id);
+            if (c == null) {
+                throw new IllegalArgumentException("Train " + fleet.id(i) + " names an unknown contract: " + id);
+            }
+            contractOf[i] = c;
+            fullDay[c] += hoursPerDay;
+        }
+    }
+
+    /**
+     * Adds one day to the totals of the contracts it still counts towards.
+     *
+     * @param cleaned the fleet positions of the trains taken out of service that day.
+     */
+    public void record(BitSet cleaned) {
+        int day = daysRecorded;
+        for (int c = 0; c < contracts.size(); c++) {
+            if (day <= endDay[c]) {
+                delivered[c] += fullDay[c];
+            }
+        }
+        for (int i = cleaned.nextSetBit(0); i >= 0; i = cleaned.nextSetBit(i + 1)) {
+            int c = contractOf[i];
+            if (c >= 0 && day <= endDay[c]) {
+                delivered[c] -= hoursPerDay;
+            }
+        }
+        daysRecorded++;
+    }
+
+    /**
+     * @return the number of days recorded so far, which is the absolute index of the next day to record.
+     */
+    public int daysRecorded() {
+        return daysRecorded;
+    }
+
+    public int contractCount() {
+        return contracts.size();
+    }
+
+    public Main.BrandingContract contract(int c) {
+        return contracts.get(c);
+    }
+
+    /**
+     * @return the exposure hours contract {@code c} has accumulated over the recorded days up to its end day.
+     */
+    public long delivered(int c) {
+        return delivered[c];
+    }
+
+    /**
+     * @return the hours contract {@code c} gains on a day none of its trains is cleaned.
+     */
+    public long fullDay(int c) {
+        return fullDay[c];
+    }
+
+    /**
+     * @return the index of the contract the train at fleet position {@code i} carries, or -1.
+     */
+    public int contractOf(int i) {
+        return contractOf[i];
+    }
+
+    public int hoursPerDay() {
+        return hoursPerDay;
+    }
+}
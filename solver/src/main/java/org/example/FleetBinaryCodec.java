@@ -0,0 +1,276 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact binary equivalent of the {@link Main.InputData} JSON document, for feeding very large
+ * fleets without paying for JSON tokenisation.
+ *
+ * <p>Layout (big-endian, {@link DataOutputStream} encoding): the magic {@code KFLT}, a format version,
+ * the whole config, then a sequence of records terminated by a single 0 byte, so the writer never needs the train
+ * count up front. A record starting with a 1 byte is a train with every {@link Main.Train} field; one starting
+ * with a 2 byte is an entry of the previous plan (train id, assigned). The config holds the slot count, the
+ * fleet average, the solver parameters, weights and objective mode, the bays, crews and default cleaning time,
+ * the tracks, the service date, the branding contracts and the service hours per day, so a decoded fleet is
+ * planned exactly like the document it was encoded from.
+ *
+ * <p>Optional values are a presence byte followed by the value; optional lists are a count, -1 when absent.
+ */
+public final class FleetBinaryCodec {
+
+    static final int MAGIC = 0x4B464C54; // "KFLT"
+    static final int VERSION = 3;
+
+    private FleetBinaryCodec() {
+    }
+
+    /**
+     * Decodes a binary fleet and pushes it into the sink, one reused {@link Main.Train} at a time.
+     */
+    public static void read(InputStream in, FleetSink sink) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a binary fleet file");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary fleet version " + version);
+        }
+        sink.config(readConfig(data));
+
+        Main.Train train = new Main.Train();
+        while (true) {
+            int marker = data.read();
+            if (marker == 0) {
+                return;
+            }
+            if (marker == 2) {
+                sink.previousAssignment(data.readUTF(), data.readBoolean());
+                continue;
+            }
+            if (marker != 1) {
+                throw new EOFException("Truncated binary fleet");
+            }
+            train.id = data.readUTF();
+            train.requiresCleaning = data.readBoolean();
+            train.distanceTravelled = data.readInt();
+            train.brandingScore = data.readInt();
+            train.stablingScore = data.readInt();
+            train.cleaningMinutes = data.readInt();
+            train.arrivalOrder = data.readInt();
+            train.departureOrder = data.readInt();
+            train.rollingStockValidFrom = readOptional(data);
+            train.rollingStockValidUntil = readOptional(data);
+            train.signallingValidFrom = readOptional(data);
+            train.signallingValidUntil = readOptional(data);
+            train.openJobCards = data.readInt();
+            train.brandingContract = readOptional(data);
+            sink.train(train);
+        }
+    }
+
+    private static Main.Config readConfig(DataInputStream data) throws IOException {
+        Main.Config config = new Main.Config();
+        config.numCleaningSlots = data.readInt();
+        config.avgFleetDistance = data.readInt();
+        if (data.readBoolean()) {
+            config.solver = new Main.SolverParameters();
+            config.solver.numWorkers = data.readInt();
+            config.solver.autoWorkers = data.readBoolean();
+            config.solver.maxTimeInSeconds = data.readDouble();
+            config.solver.relativeGapLimit = data.readDouble();
+        }
+        if (data.readBoolean()) {
+            config.weights.branding = data.readInt();
+            config.weights.stabling = data.readInt();
+            config.weights.mileagePenalty = data.readInt();
+        } else {
+            config.weights = null;
+        }
+        String objective = readOptional(data);
+        try {
+            config.objective = objective == null ? null : Main.ObjectiveMode.valueOf(objective);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown objective mode " + objective);
+        }
+        int bays = data.readInt();
+        if (bays >= 0) {
+            config.bays = new ArrayList<>(bays);
+            for (int i = 0; i < bays; i++) {
+                Main.Bay bay = new Main.Bay();
+                bay.id = readOptional(data);
+                bay.shiftStart = data.readInt();
+                bay.shiftEnd = data.readInt();
+                config.bays.add(bay);
+            }
+        }
+        config.cleaningCrews = data.readInt();
+        config.defaultCleaningMinutes = data.readInt();
+        int tracks = data.readInt();
+        if (tracks >= 0) {
+            config.tracks = new ArrayList<>(tracks);
+            for (int i = 0; i < tracks; i++) {
+                Main.Track track = new Main.Track();
+                track.id = readOptional(data);
+                track.capacity = data.readInt();
+                config.tracks.add(track);
+            }
+        }
+        config.serviceDate = readOptional(data);
+        int contracts = data.readInt();
+        if (contracts >= 0) {
+            config.contracts = new ArrayList<>(contracts);
+            for (int i = 0; i < contracts; i++) {
+                Main.BrandingContract contract = new Main.BrandingContract();
+                contract.id = readOptional(data);
+                contract.minExposureHours = data.readInt();
+                contract.endDay = data.readInt();
+                config.contracts.add(contract);
+            }
+        }
+        config.serviceHoursPerDay = data.readInt();
+        return config;
+    }
+
+    private static void writeConfig(DataOutputStream out, Main.Config config) throws IOException {
+        out.writeInt(config.numCleaningSlots);
+        out.writeInt(config.avgFleetDistance);
+        out.writeBoolean(config.solver != null);
+        if (config.solver != null) {
+            out.writeInt(config.solver.numWorkers);
+            out.writeBoolean(config.solver.autoWorkers);
+            out.writeDouble(config.solver.maxTimeInSeconds);
+            out.writeDouble(config.solver.relativeGapLimit);
+        }
+        out.writeBoolean(config.weights != null);
+        if (config.weights != null) {
+            out.writeInt(config.weights.branding);
+            out.writeInt(config.weights.stabling);
+            out.writeInt(config.weights.mileagePenalty);
+        }
+        writeOptional(out, config.objective == null ? null : config.objective.name());
+        writeCount(out, config.bays);
+        if (config.bays != null) {
+            for (Main.Bay bay : config.bays) {
+                writeOptional(out, bay.id);
+                out.writeInt(bay.shiftStart);
+                out.writeInt(bay.shiftEnd);
+            }
+        }
+        out.writeInt(config.cleaningCrews);
+        out.writeInt(config.defaultCleaningMinutes);
+        writeCount(out, config.tracks);
+        if (config.tracks != null) {
+            for (Main.Track track : config.tracks) {
+                writeOptional(out, track.id);
+                out.writeInt(track.capacity);
+            }
+        }
+        writeOptional(out, config.serviceDate);
+        writeCount(out, config.contracts);
+        if (config.contracts != null) {
+            for (Main.BrandingContract contract : config.contracts) {
+                writeOptional(out, contract.id);
+                out.writeInt(contract.minExposureHours);
+                out.writeInt(contract.endDay);
+            }
+        }
+        out.writeInt(config.serviceHoursPerDay);
+    }
+
+    private static void writeCount(DataOutputStream out, List<?> list) throws IOException {
+        out.writeInt(list == null ? -1 : list.size());
+    }
+
+    private static String readOptional(DataInputStream data) throws IOException {
+        return data.readBoolean() ? data.readUTF() : null;
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Encodes a fleet as it is delivered. The config must arrive before the first train or previous-plan entry;
+     * {@link #close()} writes the terminator.
+     */
+    public static class Writer implements FleetSink, Closeable {
+
+        private final DataOutputStream out;
+        private boolean headerWritten;
+
+        public Writer(OutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+
+        @Override
+        public void config(Main.Config config) {
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeConfig(out, config);
+                headerWritten = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void train(Main.Train train) {
+            if (!headerWritten) {
+                throw new IllegalStateException("'config' must be written before the trains");
+            }
+            try {
+                out.writeByte(1);
+                out.writeUTF(train.id);
+                out.writeBoolean(train.requiresCleaning);
+                out.writeInt(train.distanceTravelled);
+                out.writeInt(train.brandingScore);
+                out.writeInt(train.stablingScore);
+                out.writeInt(train.cleaningMinutes);
+                out.writeInt(train.arrivalOrder);
+                out.writeInt(train.departureOrder);
+                writeOptional(out, train.rollingStockValidFrom);
+                writeOptional(out, train.rollingStockValidUntil);
+                writeOptional(out, train.signallingValidFrom);
+                writeOptional(out, train.signallingValidUntil);
+                out.writeInt(train.openJobCards);
+                writeOptional(out, train.brandingContract);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void previousAssignment(String trainId, boolean assigned) {
+            if (!headerWritten) {
+                throw new IllegalStateException("'config' must be written before the previous plan");
+            }
+            try {
+                out.writeByte(2);
+                out.writeUTF(trainId);
+                out.writeBoolean(assigned);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(0);
+            out.close();
+        }
+    }
+}
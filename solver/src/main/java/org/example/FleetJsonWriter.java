@@ -0,0 +1,94 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes an {@link Main.InputData} document incrementally, the mirror image of {@link FleetStreamReader}.
+ * Each train is emitted as it arrives, so arbitrarily large fleets can be written without being held in memory.
+ * The config must be delivered before the first train; {@link #close()} finishes the document.
+ */
+public class FleetJsonWriter implements FleetSink, Closeable {
+
+    private final ObjectMapper mapper;
+    private final JsonGenerator generator;
+    private boolean trainsOpen;
+
+    public FleetJsonWriter(ObjectMapper mapper, OutputStream out) throws IOException {
+        this.mapper = mapper;
+        this.generator = mapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void config(Main.Config config) {
+        if (trainsOpen) {
+            throw new IllegalStateException("'config' must be written before the trains");
+        }
+        try {
+            generator.writeFieldName("config");
+            mapper.writeValue(generator, config);
+            generator.writeArrayFieldStart("trains");
+            trainsOpen = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void train(Main.Train train) {
+        if (!trainsOpen) {
+            throw new IllegalStateException("'config' must be written before the trains");
+        }
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("id", train.id);
+            generator.writeBooleanField("requiresCleaning", train.requiresCleaning);
+            generator.writeNumberField("distanceTravelled", train.distanceTravelled);
+            generator.writeNumberField("brandingScore", train.brandingScore);
+            generator.writeNumberField("stablingScore", train.stablingScore);
+            if (train.cleaningMinutes != 0) {
+                generator.writeNumberField("cleaningMinutes", train.cleaningMinutes);
+            }
+            if (train.arrivalOrder != 0) {
+                generator.writeNumberField("arrivalOrder", train.arrivalOrder);
+            }
+            if (train.departureOrder != 0) {
+                generator.writeNumberField("departureOrder", train.departureOrder);
+            }
+            writeDate("rollingStockValidFrom", train.rollingStockValidFrom);
+            writeDate("rollingStockValidUntil", train.rollingStockValidUntil);
+            writeDate("signallingValidFrom", train.signallingValidFrom);
+            writeDate("signallingValidUntil", train.signallingValidUntil);
+            if (train.openJobCards != 0) {
+                generator.writeNumberField("openJobCards", train.openJobCards);
+            }
+            if (train.brandingContract != null) {
+                generator.writeStringField("brandingContract", train.brandingContract);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDate(String field, String date) throws IOException {
+        if (date != null) {
+            generator.writeStringField(field, date);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (trainsOpen) {
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.close();
+    }
+}
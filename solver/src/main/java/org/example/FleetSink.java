@@ -0,0 +1,27 @@
+package org.example;
+
+/**
+ * Receives a fleet snapshot one piece at a time, as produced by {@link FleetStreamReader}.
+ *
+ * <p>The {@link Main.Train} handed to {@link #train} is a reused flyweight: implementations must copy
+ * the fields they need before returning and must not keep a reference to it.
+ * The 'config' block may arrive before or after the trains, depending on the document.
+ */
+public interface FleetSink {
+
+    void config(Main.Config config);
+
+    void train(Main.Train train);
+
+    /**
+     * One entry of the optional previous plan. Sinks that cannot use a warm start ignore it.
+     */
+    default void previousAssignment(String trainId, boolean assigned) {
+    }
+
+    /**
+     * A train that an upstream filter kept out of the fleet, with the reason. Sinks that do not report it ignore it.
+     */
+    default void withheld(String trainId, String reason) {
+    }
+}
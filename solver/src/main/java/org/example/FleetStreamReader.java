@@ -0,0 +1,158 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads an {@link Main.InputData} document token by token and forwards it to a {@link FleetSink}.
+ *
+ * <p>Unlike {@code mapper.readValue(json, InputData.class)}, neither the document text nor a
+ * {@code List<Train>} is ever materialised: each element of 'trains' is decoded into a single reused
+ * {@link Main.Train} and pushed to the sink immediately, so memory stays flat however large the snapshot is.
+ * The small 'config' object is still bound with the mapper. Unknown fields are skipped, and a null 'trains' or
+ * 'previousAssignment' reads as absent, as it does when the document is bound.
+ */
+public class FleetStreamReader {
+
+    private final ObjectMapper mapper;
+
+    public FleetStreamReader(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public void read(InputStream in, FleetSink sink) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an InputData object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "config":
+                        sink.config(parser.readValueAs(Main.Config.class));
+                        break;
+                    case "trains":
+                        readTrains(parser, sink);
+                        break;
+                    case "previousAssignment":
+                        readPreviousAssignment(parser, sink);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void readTrains(JsonParser parser, FleetSink sink) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "'trains' must be an array");
+        }
+        Main.Train train = new Main.Train();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            reset(train);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                readTrainField(parser, field, train);
+            }
+            sink.train(train);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected a train object");
+        }
+    }
+
+    private static void readPreviousAssignment(JsonParser parser, FleetSink sink) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "'previousAssignment' must be an object of train id -> boolean");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String id = parser.currentName();
+            if (parser.nextToken().isStructStart()) {
+                // Not a boolean: no hint for this train, and the parser must still move past the whole value.
+                parser.skipChildren();
+                continue;
+            }
+            sink.previousAssignment(id, parser.getValueAsBoolean());
+        }
+    }
+
+    private static void readTrainField(JsonParser parser, String field, Main.Train train) throws IOException {
+        switch (field) {
+            case "id":
+                train.id = parser.getValueAsString();
+                break;
+            case "requiresCleaning":
+                train.requiresCleaning = parser.getValueAsBoolean();
+                break;
+            case "distanceTravelled":
+                train.distanceTravelled = parser.getIntValue();
+                break;
+            case "brandingScore":
+                train.brandingScore = parser.getIntValue();
+                break;
+            case "stablingScore":
+                train.stablingScore = parser.getIntValue();
+                break;
+            case "cleaningMinutes":
+                train.cleaningMinutes = parser.getIntValue();
+                break;
+            case "arrivalOrder":
+                train.arrivalOrder = parser.getIntValue();
+                break;
+            case "departureOrder":
+                train.departureOrder = parser.getIntValue();
+                break;
+            case "rollingStockValidFrom":
+                train.rollingStockValidFrom = parser.getValueAsString();
+                break;
+            case "rollingStockValidUntil":
+                train.rollingStockValidUntil = parser.getValueAsString();
+                break;
+            case "signallingValidFrom":
+                train.signallingValidFrom = parser.getValueAsString();
+                break;
+            case "signallingValidUntil":
+                train.signallingValidUntil = parser.getValueAsString();
+                break;
+            case "openJobCards":
+                train.openJobCards = parser.getIntValue();
+                break;
+            case "brandingContract":
+                train.brandingContract = parser.getValueAsString();
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+
+    private static void reset(Main.Train train) {
+        train.id = null;
+        train.requiresCleaning = false;
+        train.distanceTravelled = 0;
+        train.brandingScore = 0;
+        train.stablingScore = 0;
+        train.cleaningMinutes = 0;
+        train.arrivalOrder = 0;
+        train.departureOrder = 0;
+        train.rollingStockValidFrom = null;
+        train.rollingStockValidUntil = null;
+        train.signallingValidFrom = null;
+        train.signallingValidUntil = null;
+        train.openJobCards = 0;
+        train.brandingContract = null;
+    }
+}
@@ -0,0 +1,268 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fleet as parallel primitive columns, filled either from an {@link Main.InputData} or directly by a
+ * {@link FleetStreamReader}. This is the input the selection engine builds its model from.
+ *
+ * <p>Trains are identified by their position in the table: the model builder and the result extraction
+ * index the {@code int[]} columns and the {@code requiresCleaning} bit set directly, so no string is
+ * hashed and no per-train object is created on the hot path. Ids live in a dictionary that is only
+ * consulted when a caller needs to translate between ids and positions.
+ */
+public class FleetTable implements FleetSink {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    Main.Config config;
+    int size;
+    String[] ids = new String[INITIAL_CAPACITY];
+    final BitSet requiresCleaning = new BitSet();
+    int[] distanceTravelled = new int[INITIAL_CAPACITY];
+    int[] brandingScore = new int[INITIAL_CAPACITY];
+    int[] stablingScore = new int[INITIAL_CAPACITY];
+    int[] cleaningMinutes = new int[INITIAL_CAPACITY];
+    int[] arrivalOrder = new int[INITIAL_CAPACITY];
+    int[] departureOrder = new int[INITIAL_CAPACITY];
+    String[] brandingContract = new String[INITIAL_CAPACITY];
+
+    // The previous plan (train id -> assigned), if one was supplied; used as CP-SAT hints.
+    final Map<String, Boolean> previousAssignment = new HashMap<>();
+
+    // Trains an EligibilityFilter kept out of the table (train id -> reason), in arrival order.
+    final Map<String, String> withheld = new LinkedHashMap<>();
+
+    // id -> position; built on first lookup so ingestion never hashes ids.
+    private Map<String, Integer> positions;
+
+    // |distanceTravelled - avgFleetDistance| per train; built on first use and kept until the fleet or the average changes.
+    private long[] deviation;
+    private int deviationAverage;
+
+    /**
+     * Builds the table from a bound document, leaving out the trains that are not eligible to run.
+     */
+    public static FleetTable of(Main.InputData data) {
+        FleetTable table = new FleetTable();
+        EligibilityFilter sink = new EligibilityFilter(table);
+        sink.config(data.config);
+        List<Main.Train> trains = data.trains;
+        for (int i = 0; i < trains.size(); i++) {
+            sink.train(trains.get(i));
+        }
+        if (data.previousAssignment != null) {
+            table.previousAssignment.putAll(data.previousAssignment);
+        }
+        return table;
+    }
+
+    /**
+     * @return a copy of the trains, the previous plan and the withheld trains that later changes to this table do
+     *         not reach. The config object is shared.
+     */
+    FleetTable copy() {
+        FleetTable table = new FleetTable();
+        table.config = config;
+        table.size = size;
+        table.ids = Arrays.copyOf(ids, size);
+        table.requiresCleaning.or(requiresCleaning);
+        table.distanceTravelled = Arrays.copyOf(distanceTravelled, size);
+        table.brandingScore = Arrays.copyOf(brandingScore, size);
+        table.stablingScore = Arrays.copyOf(stablingScore, size);
+        table.cleaningMinutes = Arrays.copyOf(cleaningMinutes, size);
+        table.arrivalOrder = Arrays.copyOf(arrivalOrder, size);
+        table.departureOrder = Arrays.copyOf(departureOrder, size);
+        table.brandingContract = Arrays.copyOf(brandingContract, size);
+        table.previousAssignment.putAll(previousAssignment);
+        table.withheld.putAll(withheld);
+        return table;
+    }
+
+    @Override
+    public void config(Main.Config config) {
+        this.config = config;
+        deviation = null;
+    }
+
+    @Override
+    public void train(Main.Train train) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            distanceTravelled = Arrays.copyOf(distanceTravelled, capacity);
+            brandingScore = Arrays.copyOf(brandingScore, capacity);
+            stablingScore = Arrays.copyOf(stablingScore, capacity);
+            cleaningMinutes = Arrays.copyOf(cleaningMinutes, capacity);
+            arrivalOrder = Arrays.copyOf(arrivalOrder, capacity);
+            departureOrder = Arrays.copyOf(departureOrder, capacity);
+            brandingContract = Arrays.copyOf(brandingContract, capacity);
+        }
+        ids[size] = train.id;
+        requiresCleaning.set(size, train.requiresCleaning);
+        distanceTravelled[size] = train.distanceTravelled;
+        brandingScore[size] = train.brandingScore;
+        stablingScore[size] = train.stablingScore;
+        cleaningMinutes[size] = train.cleaningMinutes;
+        arrivalOrder[size] = train.arrivalOrder;
+        departureOrder[size] = train.departureOrder;
+        brandingContract[size] = train.brandingContract;
+        size++;
+        positions = null;
+        deviation = null;
+    }
+
+    @Override
+    public void previousAssignment(String trainId, boolean assigned) {
+        previousAssignment.put(trainId, assigned);
+    }
+
+    @Override
+    public void withheld(String trainId, String reason) {
+        withheld.put(trainId, reason);
+    }
+
+    /**
+     * @return the trains left out of the table as ineligible, keyed by train id, with the reason; empty if none were.
+     */
+    public Map<String, String> withheld() {
+        return withheld;
+    }
+
+    /**
+     * @return the previous plan supplied with the fleet, keyed by train id; empty if there was none.
+     */
+    public Map<String, Boolean> previousAssignment() {
+        return previousAssignment;
+    }
+
+    public Main.Config config() {
+        return config;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int i) {
+        return ids[i];
+    }
+
+    /**
+     * @return the position of the train with the given id, or -1 if the fleet has no such train.
+     *         With duplicate ids the first occurrence wins.
+     */
+    public int indexOf(String id) {
+        if (positions == null) {
+            Map<String, Integer> index = new HashMap<>(size * 2);
+            for (int i = size - 1; i >= 0; i--) {
+                index.put(ids[i], i);
+            }
+            positions = index;
+        }
+        Integer position = positions.get(id);
+        return position == null ? -1 : position;
+    }
+
+    public boolean requiresCleaning(int i) {
+        return requiresCleaning.get(i);
+    }
+
+    public int distanceTravelled(int i) {
+        return distanceTravelled[i];
+    }
+
+    /**
+     * Updates the mileage of one train in place, keeping the cached deviation in step.
+     */
+    void distanceTravelled(int i, int distance) {
+        distanceTravelled[i] = distance;
+        if (deviation != null) {
+            deviation[i] = Math.abs((long) distance - deviationAverage);
+        }
+    }
+
+    /**
+     * @return the mileage deviation of every train from {@code config.avgFleetDistance}, indexed by position.
+     *         The array is shared and must not be modified by callers.
+     */
+    long[] deviation() {
+        int average = config.avgFleetDistance;
+        if (deviation == null || deviationAverage != average) {
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = Math.abs((long) distanceTravelled[i] - average);
+            }
+            deviation = values;
+            deviationAverage = average;
+        }
+        return deviation;
+    }
+
+    public int brandingScore(int i) {
+        return brandingScore[i];
+    }
+
+    public int stablingScore(int i) {
+        return stablingScore[i];
+    }
+
+    /**
+     * @return how long the train's cleaning takes in minutes, falling back to {@code config.defaultCleaningMinutes}
+     *         for trains that do not state it.
+     */
+    public int cleaningMinutes(int i) {
+        int minutes = cleaningMinutes[i];
+        return minutes > 0 ? minutes : config.defaultCleaningMinutes;
+    }
+
+    /**
+     * @return the train's place in tonight's arrival sequence, or 0 if it is not stabled in the yard.
+     */
+    public int arrivalOrder(int i) {
+        return arrivalOrder[i];
+    }
+
+    /**
+     * @return the train's place in tomorrow's departure sequence, or 0 if it stays in the yard.
+     */
+    public int departureOrder(int i) {
+        return departureOrder[i];
+    }
+
+    /**
+     * @return the id of the branding contract whose wrap the train carries, or null if it carries none.
+     */
+    public String brandingContract(int i) {
+        return brandingContract[i];
+    }
+
+    /**
+     * @return the number of trains that require cleaning, i.e. the number of decision variables.
+     */
+    public int candidateCount() {
+        return requiresCleaning.cardinality();
+    }
+
+    /**
+     * Materialises the train at the given position. Only used for reporting.
+     */
+    public Main.Train train(int i) {
+        Main.Train t = new Main.Train();
+        t.id = ids[i];
+        t.requiresCleaning = requiresCleaning.get(i);
+        t.distanceTravelled = distanceTravelled[i];
+        t.brandingScore = brandingScore[i];
+        t.stablingScore = stablingScore[i];
+        t.cleaningMinutes = cleaningMinutes[i];
+        t.arrivalOrder = arrivalOrder[i];
+        t.departureOrder = departureOrder[i];
+        t.brandingContract = brandingContract[i];
+        return t;
+    }
+}
@@ -0,0 +1,216 @@
+package org.example;
+
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps tonight's cleaning selection in memory and updates it as individual trains change.
+ *
+ * <p>For the separable model the optimum is the top {@code numCleaningSlots} candidates by
+ * {@code reward + penalty}. The planner keeps those in one ordered set and the remaining positive candidates
+ * in another, so a {@link TrainEvent} costs a removal, a re-insertion and at most one swap between the sets:
+ * O(log n). The selection is only touched when the changed train can cross the top-k boundary; every other
+ * delta just adjusts the objective.
+ *
+ * <p>Only engines without model extensions and fleets in the weighted objective mode are supported, since their
+ * optimum has this top-k structure.
+ * Thread-safe: every public method synchronizes on the planner.
+ */
+public class IncrementalPlanner {
+
+    private final FleetTable fleet;
+    private final Main.Weights weights;
+    private final long[] coefficient;
+    private final long[] penalty;
+    private final TreeSet<Integer> selected;
+    private final TreeSet<Integer> waiting;
+    private final BitSet assigned = new BitSet();
+    private int slots;
+    private long objective;
+    private long reselections;
+
+    public IncrementalPlanner(SelectionEngine engine, FleetTable fleet) {
+        if (!engine.isSeparable()) {
+            throw new IllegalArgumentException("Incremental planning needs an engine without model extensions");
+        }
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        if (fleet.config().objective == Main.ObjectiveMode.LEXICOGRAPHIC) {
+            throw new IllegalArgumentException("Incremental planning needs the weighted objective");
+        }
+        this.fleet = fleet;
+        this.weights = SelectionEngine.weightsOf(fleet.config());
+        ObjectiveCoefficients coefficients = ObjectiveCoefficients.of(fleet, weights);
+        this.coefficient = coefficients.coefficient;
+        this.penalty = coefficients.penalty;
+        // Best candidate first; positions break ties so distinct trains never compare equal.
+        Comparator<Integer> byCoefficient = (a, b) -> coefficient[a] != coefficient[b]
+                ? Long.compare(coefficient[b], coefficient[a])
+                : Integer.compare(a, b);
+        this.selected = new TreeSet<>(byCoefficient);
+        this.waiting = new TreeSet<>(byCoefficient);
+        this.slots = Math.max(0, fleet.config().numCleaningSlots);
+
+        objective = coefficients.constant();
+        for (int i = 0; i < fleet.size(); i++) {
+            if (isCandidate(i)) {
+                waiting.add(i);
+            }
+        }
+        rebalance();
+    }
+
+    /**
+     * Applies one state change and returns whether the selection changed.
+     *
+     * @throws IllegalArgumentException if the event names a train that is not in the fleet.
+     */
+    public synchronized boolean apply(TrainEvent event) {
+        int i = event.id == null ? -1 : fleet.indexOf(event.id);
+        if (i < 0) {
+            throw new IllegalArgumentException("Unknown train: " + event.id);
+        }
+        boolean wasSelected = selected.remove(i);
+        if (wasSelected) {
+            objective -= coefficient[i];
+            assigned.clear(i);
+        } else {
+            waiting.remove(i);
+        }
+        objective += penalty[i];
+
+        if (event.requiresCleaning != null) {
+            fleet.requiresCleaning.set(i, event.requiresCleaning);
+        }
+        if (event.distanceTravelled != null) {
+            fleet.distanceTravelled(i, event.distanceTravelled);
+        }
+        if (event.brandingScore != null) {
+            fleet.brandingScore[i] = event.brandingScore;
+        }
+        if (event.stablingScore != null) {
+            fleet.stablingScore[i] = event.stablingScore;
+        }
+        refresh(i);
+        objective -= penalty[i];
+
+        if (isCandidate(i)) {
+            waiting.add(i);
+        }
+        // A previously selected train leaves one slot open; the selection only changed if someone else took it.
+        int moves = rebalance();
+        boolean changed = wasSelected ? !assigned.get(i) || moves > 1 : moves > 0;
+        if (changed) {
+            reselections++;
+        }
+        return changed;
+    }
+
+    /**
+     * Applies a batch of state changes as one: if any event names a train that is not in the fleet, none of them
+     * is applied.
+     *
+     * @return whether any event changed the selection.
+     * @throws IllegalArgumentException if an event names a train that is not in the fleet.
+     */
+    public synchronized boolean applyAll(List<TrainEvent> events) {
+        for (TrainEvent event : events) {
+            String id = event == null ? null : event.id;
+            if (id == null || fleet.indexOf(id) < 0) {
+                throw new IllegalArgumentException("Unknown train: " + id);
+            }
+        }
+        boolean changed = false;
+        for (TrainEvent event : events) {
+            changed |= apply(event);
+        }
+        return changed;
+    }
+
+    /**
+     * Changes the number of cleaning slots; costs O(|delta| log n).
+     */
+    public synchronized boolean setSlots(int numCleaningSlots) {
+        slots = Math.max(0, numCleaningSlots);
+        fleet.config().numCleaningSlots = numCleaningSlots;
+        boolean changed = rebalance() > 0;
+        if (changed) {
+            reselections++;
+        }
+        return changed;
+    }
+
+    /**
+     * @return a snapshot of the current plan. It holds its own copy of the fleet, so it can be reported while
+     *         later events change the live one.
+     */
+    public synchronized PlanResult plan() {
+        PlanResult result = new PlanResult();
+        result.solvePath = PlanResult.SolvePath.CLOSED_FORM;
+        result.status = fleet.config().numCleaningSlots < 0 ? CpSolverStatus.INFEASIBLE : CpSolverStatus.OPTIMAL;
+        result.objectiveValue = objective;
+        result.fleet = fleet.copy();
+        result.assigned.or(assigned);
+        return result;
+    }
+
+    /**
+     * @return how many applied deltas actually changed the selection.
+     */
+    public synchronized long reselections() {
+        return reselections;
+    }
+
+    private boolean isCandidate(int i) {
+        return fleet.requiresCleaning.get(i) && coefficient[i] > 0;
+    }
+
+    private void refresh(int i) {
+        penalty[i] = fleet.deviation()[i] * weights.mileagePenalty;
+        coefficient[i] = (long) fleet.brandingScore[i] * weights.branding
+                + (long) fleet.stablingScore[i] * weights.stabling + penalty[i];
+    }
+
+    /**
+     * Restores the invariant: {@code selected} holds the best {@code min(slots, candidates)} candidates.
+     *
+     * @return the number of trains moved into or out of the selection.
+     */
+    private int rebalance() {
+        int moves = 0;
+        while (selected.size() > slots) {
+            int worst = selected.pollLast();
+            unselect(worst);
+            waiting.add(worst);
+            moves++;
+        }
+        while (selected.size() < slots && !waiting.isEmpty()) {
+            select(waiting.pollFirst());
+            moves++;
+        }
+        while (!selected.isEmpty() && !waiting.isEmpty() && coefficient[waiting.first()] > coefficient[selected.last()]) {
+            int worst = selected.pollLast();
+            unselect(worst);
+            select(waiting.pollFirst());
+            waiting.add(worst);
+            moves++;
+        }
+        return moves;
+    }
+
+    private void select(int i) {
+        selected.add(i);
+        assigned.set(i);
+        objective += coefficient[i];
+    }
+
+    private void unselect(int i) {
+        assigned.clear(i);
+        objective -= coefficient[i];
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, fixed-size latency histogram in the spirit of HdrHistogram.
+ *
+ * <p>Values (nanoseconds) are bucketed log-linearly: every power-of-two range is split into
+ * {@value #SUB_BUCKETS} equal sub-buckets, so any recorded value is reported within about 6% of its
+ * true magnitude while the whole histogram stays a single array of 1024 counters.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * @param percentile in the range (0, 100].
+     * @return an estimate of the value at the given percentile, or 0 if nothing was recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @return count, mean, p50, p90, p99 and max, in microseconds.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long count = count();
+        snapshot.put("count", count);
+        snapshot.put("meanMicros", count == 0 ? 0.0 : sum.sum() / (double) count / 1_000);
+        snapshot.put("p50Micros", valueAtPercentile(50) / 1_000.0);
+        snapshot.put("p90Micros", valueAtPercentile(90) / 1_000.0);
+        snapshot.put("p99Micros", valueAtPercentile(99) / 1_000.0);
+        snapshot.put("maxMicros", max.get() / 1_000.0);
+        return snapshot;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lowest = (1L << exponent) | (sub << (exponent - SUB_BUCKET_BITS));
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
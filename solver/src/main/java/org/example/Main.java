@@ -0,0 +1,397 @@
+package org.example;
+
+// Import necessary libraries.
+// 'com.fasterxml.jackson.databind.ObjectMapper' is a class from the Jackson library, used for converting JSON data to Java objects and vice-versa.
+// 'com.google.ortools.Loader' is used to load the native C++ libraries required by OR-Tools.
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.Loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+// This is the main class that contains all the program logic.
+public class Main {
+
+    // --- Data Classes to Match JSON Structure ---
+    // These static inner classes serve as templates that define the structure of the input JSON.
+    // The ObjectMapper from the Jackson library requires these blueprints to correctly parse the JSON string into structured Java objects.
+    // The variable names inside these classes must exactly match the keys in the JSON.
+
+    /**
+     * Represents the root of the JSON object, containing the configuration and the list of trains.
+     */
+    public static class InputData {
+        public Config config;
+        public List<Train> trains;
+        public Map<String, Boolean> previousAssignment; // Optional: the last plan (train id -> assigned), used as solver hints.
+    }
+
+    /**
+     * Represents the 'config' object in the JSON, holding global parameters for the solver.
+     */
+    public static class Config {
+        public int numCleaningSlots;   // Defines the maximum number of trains that can be assigned for cleaning.
+        public int avgFleetDistance;   // The target average distance for the mileage balancing objective.
+        public SolverParameters solver; // Optional CP-SAT tuning; when absent the solver runs with its defaults.
+        public Weights weights = new Weights(); // Objective weights; a request overrides any of them by sending its own values.
+        public ObjectiveMode objective = ObjectiveMode.WEIGHTED; // How branding, mileage and stabling are combined.
+        public List<Bay> bays;          // Optional: the depot's cleaning bays, used by the bay scheduler instead of numCleaningSlots.
+        public int cleaningCrews;       // Optional: cleanings that can run at the same time across all bays; 0 means one per bay.
+        public int defaultCleaningMinutes = 120; // Cleaning duration for trains that do not state their own.
+        public List<Track> tracks;      // Optional: the stabling yard's dead-end tracks, used by the yard planner.
+        public String serviceDate;      // Optional: the day the plan is for (ISO date), for the certificate checks; defaults to today.
+        public List<BrandingContract> contracts; // Optional: advertisers' exposure minimums, enforced by the rolling-horizon planner.
+        public int serviceHoursPerDay = 16; // Hours a train in service runs each day, exposing its wrap.
+    }
+
+    /**
+     * Represents one entry of the optional 'bays' array inside 'config'. Times are minutes from the start of
+     * the night's maintenance window; a cleaning must start and finish inside the bay's shift.
+     */
+    public static class Bay {
+        public String id;
+        public int shiftStart;  // When the bay's shift begins.
+        public int shiftEnd;    // When the bay's shift ends.
+    }
+
+    /**
+     * Represents one entry of the optional 'tracks' array inside 'config': a dead-end stabling line. Trains enter
+     * and leave from the same end, so a train can only depart once every train parked in front of it has left.
+     */
+    public static class Track {
+        public String id;
+        public int capacity;    // How many trains fit on the track.
+    }
+
+    /**
+     * Represents one entry of the optional 'contracts' array inside 'config': an advertiser's wrap carried by the
+     * trains whose 'brandingContract' names it. Days count from the rolling-horizon planner's first night (day 0);
+     * a train earns 'serviceHoursPerDay' hours of exposure every day it is not taken out of service for cleaning.
+     */
+    public static class BrandingContract {
+        public String id;
+        public int minExposureHours;  // Exposure the wrap must have accumulated by the end of 'endDay'.
+        public int endDay;            // The last day that counts towards the minimum.
+    }
+
+    /**
+     * Selects how the goals are combined into one plan.
+     */
+    public enum ObjectiveMode {
+        WEIGHTED,      // Maximise the weighted sum of branding, stabling and the mileage penalty (the default).
+        LEXICOGRAPHIC  // Maximise branding first, then balance mileage, then stabling; the weights are ignored.
+    }
+
+    /**
+     * Represents the optional 'weights' block inside 'config'. These weights define the relative importance
+     * of each goal: a higher weight means the solver will prioritize that objective more heavily.
+     * Fields missing from a request keep the defaults below.
+     */
+    public static class Weights {
+        public int branding = 10;       // Reward per point of branding score for an assigned train.
+        public int stabling = 5;        // Reward per point of stabling score for an assigned train.
+        public int mileagePenalty = 1;  // Penalty per km of mileage deviation for a train left in service.
+    }
+
+    /**
+     * Represents the optional 'solver' block inside 'config'. These values are mapped onto the CP-SAT
+     * parameters whenever the model has to be handed to the native solver.
+     */
+    public static class SolverParameters {
+        public int numWorkers;            // Number of parallel search workers; 0 keeps the CP-SAT default.
+        public boolean autoWorkers;       // If true, the worker count is sized from the model size and the available cores.
+        public double maxTimeInSeconds;   // Wall-clock limit for a single solve; 0 means no limit.
+        public double relativeGapLimit;   // Stop once (bound - objective) / objective falls below this; 0 means prove optimality.
+    }
+
+    /**
+     * Represents a single train object from the 'trains' array in the JSON.
+     */
+    public static class Train {
+        public String id;
+        public boolean requiresCleaning; // A boolean indicating if this train is a candidate for a cleaning assignment.
+        public int distanceTravelled;    // The train's current mileage, used for the balancing calculation.
+        public int brandingScore;        // A numerical score representing the branding priority.
+        public int stablingScore;        // A numerical score representing the stabling priority.
+        public int cleaningMinutes;      // Optional: how long this train's cleaning takes; 0 uses config.defaultCleaningMinutes.
+        public int arrivalOrder;         // Optional: the train's place in tonight's arrival sequence (1 = first in); 0 = not stabled.
+        public int departureOrder;       // Optional: its place in tomorrow's departure sequence (1 = first out); 0 = stays in the yard.
+        // Optional fitness certificates, as ISO dates (inclusive). A missing bound is not checked; a train whose
+        // certificate is not valid on the service date is withheld from the plan.
+        public String rollingStockValidFrom;
+        public String rollingStockValidUntil;
+        public String signallingValidFrom;
+        public String signallingValidUntil;
+        public int openJobCards;         // Maintenance job cards still open; a train with any is withheld from the plan.
+        public String brandingContract;  // Optional: the id of the contract in 'config.contracts' whose wrap this train carries.
+    }
+
+    /**
+     * This is the main method, the entry point where the program execution begins.
+     * @param args Command-line arguments. {@code --serve [port]} starts the long-lived HTTP solver service
+     *             (default port 8080); {@code --generate <trains> <seed> <file>}
+     *             writes a synthetic fleet (binary if the file ends in {@code .bin}, JSON otherwise);
+     *             {@code --sweep <file> [samples] [seed]} reports how the plan for that fleet changes across
+     *             randomly perturbed objective weights; {@code --pareto <file> [points]} prints the trade-off
+     *             frontier between branding and mileage balance for that fleet; {@code --horizon <file> [days]}
+     *             plans cleaning across the next few nights (default 7) within the branding contracts in
+     *             'config.contracts'; {@code --bays <file>} books tonight's
+     *             cleanings into the bays and shift windows listed in 'config.bays'; {@code --yard <file>} parks
+     *             tonight's arrivals on the tracks in 'config.tracks' with as few shunting moves as possible; a file path
+     *             streams that InputData document from disk; with no arguments the built-in sample is solved once.
+     * @throws IOException if there is an error during JSON parsing or while starting the service.
+     */
+    public static void main(String[] args) throws IOException {
+        // Every phase of the run (native load, parse, model build, solve, report) is timed into this registry.
+        // Run with -Dmetrics=true to print it as JSON at the end.
+        SolverMetrics metrics = new SolverMetrics();
+
+        // This statement is required to load the native C++ libraries that power the OR-Tools solver.
+        // The Java code acts as a wrapper around this high-performance C++ engine.
+        long phaseStart = System.nanoTime();
+        Loader.loadNativeLibraries();
+        metrics.record(SolverMetrics.Phase.NATIVE_LOAD, System.nanoTime() - phaseStart);
+
+        // The selection engine owns the model. For the plain cleaning-slot problem (one cardinality
+        // constraint and a separable objective) it answers with a closed-form top-k selection;
+        // it only builds a CpModel and calls CpSolver when extra constraints are registered on it.
+        // The objective weights travel with each input, in 'config.weights'.
+        SelectionEngine engine = new SelectionEngine().withMetrics(metrics);
+
+        // --- Solver Workers ---
+        // With -Dworkers=<n>, CP-SAT solves run in a pool of pre-warmed child processes, so a crash inside
+        // the native solver costs one retried request instead of this JVM.
+        int workers = Integer.getInteger("workers", 0);
+        if (workers > 0) {
+            WorkerPool pool = new WorkerPool(workers).withMetrics(metrics);
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close));
+            engine.withBackend(pool);
+        }
+
+        // --- Service Mode ---
+        // In service mode the JVM, the native libraries and the ObjectMapper stay warm,
+        // and every HTTP request carries its own InputData document.
+        if (args.length > 0 && args[0].equals("--serve")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            new SolverService(engine, port).start();
+            System.out.println("Solver service listening on port " + port);
+            return;
+        }
+
+        // Create an instance of the Jackson ObjectMapper to handle the JSON deserialization.
+        ObjectMapper mapper = new ObjectMapper();
+
+        // --- Generator Mode ---
+        // Writes a deterministic synthetic fleet to disk for load testing; trains are streamed
+        // to the file as they are generated.
+        if (args.length > 0 && args[0].equals("--generate")) {
+            FleetGenerator generator = new FleetGenerator(Long.parseLong(args[2]), Integer.parseInt(args[1]));
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[3]))) {
+                if (args[3].endsWith(".bin")) {
+                    try (FleetBinaryCodec.Writer writer = new FleetBinaryCodec.Writer(out)) {
+                        generator.generate(writer);
+                    }
+                } else {
+                    try (FleetJsonWriter writer = new FleetJsonWriter(mapper, out)) {
+                        generator.generate(writer);
+                    }
+                }
+            }
+            System.out.println("Wrote " + args[1] + " trains to " + args[3]);
+            return;
+        }
+
+        // --- Sensitivity Sweep ---
+        // Solves the same fleet under a random sample of weight vectors around its configured weights
+        // (each weight scaled by up to +/-50%) and prints which trains flip in and out of the plan.
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            FleetTable fleet = readFleet(args[1], mapper, metrics);
+            if (fleet.config() == null) {
+                throw new IllegalArgumentException("Input must contain 'config'");
+            }
+            int samples = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+            List<Weights> vectors = WeightSweep.sample(SelectionEngine.weightsOf(fleet.config()), samples, 0.5, seed);
+            WeightSweep.Report report = new WeightSweep(engine, 0).run(fleet, vectors);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            return;
+        }
+
+        // --- Pareto Frontier ---
+        // Instead of one weighted-sum plan, lists the plans that trade branding against mileage balance
+        // without being beaten on both, so a planner can pick the trade-off explicitly.
+        if (args.length > 0 && args[0].equals("--pareto")) {
+            FleetTable fleet = readFleet(args[1], mapper, metrics);
+            int points = args.length > 2 ? Integer.parseInt(args[2]) : 11;
+            List<ParetoFrontier.Point> frontier = new ParetoFrontier(engine, 0).compute(fleet, points);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(frontier));
+            return;
+        }
+
+        // --- Rolling Horizon ---
+        // Spreads the cleaning candidates over the next few nights instead of tonight only,
+        // each train cleaned at most once and as early as the slots allow.
+        if (args.length > 0 && args[0].equals("--horizon")) {
+            FleetTable fleet = readFleet(args[1], mapper, metrics);
+            int days = args.length > 2 ? Integer.parseInt(args[2]) : 7;
+            RollingHorizonPlanner.HorizonPlan plan = new RollingHorizonPlanner(engine, fleet, days).solve();
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(plan));
+            return;
+        }
+
+        // --- Bay Scheduling ---
+        // Books each cleaning into a bay and a start time, honouring shift windows and per-train durations.
+        if (args.length > 0 && args[0].equals("--bays")) {
+            FleetTable fleet = readFleet(args[1], mapper, metrics);
+            BayScheduler.Schedule schedule = new BayScheduler(engine).schedule(fleet);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(schedule));
+            return;
+        }
+
+        // --- Stabling Yard ---
+        // Chooses a track for every arriving train so that tomorrow's departure sequence needs the fewest shunts.
+        if (args.length > 0 && args[0].equals("--yard")) {
+            FleetTable fleet = readFleet(args[1], mapper, metrics);
+            YardPlanner.YardPlan plan = new YardPlanner(engine).plan(fleet);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(plan));
+            return;
+        }
+
+        // --- Warm Start ---
+        // With -DplanStore=<file>, the last saved plan seeds tonight's solve as hints
+        // (unless the input brings its own previousAssignment), and the new plan is saved afterwards.
+        String planStorePath = System.getProperty("planStore");
+        PlanStore planStore = planStorePath == null ? null : new PlanStore(Paths.get(planStorePath), mapper);
+
+        PlanResult result;
+        Config config;
+
+        if (args.length > 0) {
+            // --- File Input ---
+            // Large snapshots are streamed token by token into a columnar FleetTable,
+            // so neither the file contents nor a List<Train> is ever held in memory.
+            // Files ending in .bin use the compact binary encoding instead of JSON.
+            FleetTable fleet = readFleet(args[0], mapper, metrics);
+            if (planStore != null && fleet.previousAssignment().isEmpty()) {
+                fleet.previousAssignment().putAll(planStore.load());
+            }
+            result = engine.solve(fleet);
+            config = fleet.config();
+        } else {
+            // --- JSON Input ---
+            // This is a sample JSON string for testing purposes. In a real application,
+            // this string would come from an external source, like an API request.
+            String jsonInput = "{\n" +
+                    "  \"config\": {\n" +
+                    "    \"numCleaningSlots\": 2,\n" +
+                    "    \"avgFleetDistance\": 6500\n" +
+                    "  },\n" +
+                    "  \"trains\": [\n" +
+                    "    {\"id\": \"T01\", \"requiresCleaning\": true, \"distanceTravelled\": 6800, \"brandingScore\": 90, \"stablingScore\": 80},\n" +
+                    "    {\"id\": \"T03\", \"requiresCleaning\": true, \"distanceTravelled\": 6400, \"brandingScore\": 50, \"stablingScore\": 60},\n" +
+                    "    {\"id\": \"T04\", \"requiresCleaning\": false, \"distanceTravelled\": 6550, \"brandingScore\": 70, \"stablingScore\": 75},\n" +
+                    "    {\"id\": \"T05\", \"requiresCleaning\": true, \"distanceTravelled\": 7500, \"brandingScore\": 98, \"stablingScore\": 92},\n" +
+                    "    {\"id\": \"T06\", \"requiresCleaning\": true, \"distanceTravelled\": 5500, \"brandingScore\": 30, \"stablingScore\": 40}\n" +
+                    "  ]\n" +
+                    "}";
+
+            // The readValue method parses the 'jsonInput' string and maps its contents
+            // into a new 'InputData' object, following the structure of our data classes.
+            phaseStart = System.nanoTime();
+            InputData data = mapper.readValue(jsonInput, Main.InputData.class);
+            metrics.record(SolverMetrics.Phase.PARSE, System.nanoTime() - phaseStart);
+
+            // --- Solve ---
+            if (planStore != null && data.previousAssignment == null) {
+                data.previousAssignment = planStore.load();
+            }
+            result = engine.solve(data);
+            config = data.config;
+        }
+
+        // --- Interpret and Display the Results ---
+        phaseStart = System.nanoTime();
+        // Check if the engine successfully found a feasible or optimal solution.
+        if (result.hasSolution()) {
+            System.out.println("Success: Solver found an optimal solution!");
+            System.out.println("Maximized Objective Value: " + result.objectiveValue + "\n");
+            System.out.println("--- Optimal Assignment Plan ---");
+
+            // The engine has already categorized the trains based on its decisions.
+            List<Train> assignedForCleaning = result.getAssignedForCleaning();
+            List<Train> goingToService = result.getGoingToService();
+
+            // This final section is for displaying the results to the console.
+            // In a production environment, this part would be replaced with logic to serialize
+            // the 'assignedForCleaning' and 'goingToService' lists back into a JSON format
+            // to be returned by an API.
+            System.out.println("--> Assigned for Cleaning (" + assignedForCleaning.size() + "/" + config.numCleaningSlots + " slots used):");
+            if (assignedForCleaning.isEmpty()){
+                System.out.println("  None.");
+            } else {
+                for(Train t : assignedForCleaning) {
+                    System.out.printf("  - Train %s (Branding: %d, Stabling: %d)\n", t.id, t.brandingScore, t.stablingScore);
+                }
+            }
+
+            System.out.println("\n--> Proceeding to Service (Unassigned Fleet):");
+            if (goingToService.isEmpty()){
+                System.out.println("  None.");
+            } else {
+                for(Train t : goingToService) {
+                    long dev = Math.abs(t.distanceTravelled - config.avgFleetDistance);
+                    System.out.printf("  - Train %s (Mileage Deviation: %d km)\n", t.id, dev);
+                }
+            }
+
+            // Trains that failed the eligibility checks were never part of the model; list them with the reason.
+            Map<String, String> withheld = result.getWithheld();
+            if (!withheld.isEmpty()) {
+                System.out.println("\n--> Withheld (Not Eligible to Run):");
+                for (Map.Entry<String, String> entry : withheld.entrySet()) {
+                    System.out.printf("  - Train %s (%s)\n", entry.getKey(), entry.getValue());
+                }
+            }
+        } else {
+            // This block executes if the solver could not find a valid solution.
+            System.out.println("Error: No solution could be found. Status: " + result.status);
+        }
+        metrics.record(SolverMetrics.Phase.REPORT, System.nanoTime() - phaseStart);
+
+        if (planStore != null) {
+            planStore.save(result);
+        }
+
+        if (Boolean.getBoolean("metrics")) {
+            System.out.println("\n" + mapper.writerWithDefaultPrettyPrinter().writeValueAsString(metrics.snapshot()));
+        }
+    }
+
+    /**
+     * Streams a fleet file into a new table, recording the PARSE phase.
+     * Files ending in .bin are read with the binary codec, anything else as an InputData JSON document.
+     */
+    private static FleetTable readFleet(String path, ObjectMapper mapper, SolverMetrics metrics) throws IOException {
+        long start = System.nanoTime();
+        FleetTable fleet = new FleetTable();
+        // Trains with an invalid certificate or open job cards are withheld here, before any model is built.
+        EligibilityFilter sink = new EligibilityFilter(fleet);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+            if (path.endsWith(".bin")) {
+                FleetBinaryCodec.read(in, sink);
+            } else {
+                new FleetStreamReader(mapper).read(in, sink);
+            }
+        }
+        metrics.record(SolverMetrics.Phase.PARSE, System.nanoTime() - start);
+        return fleet;
+    }
+}
\ No newline at end of file
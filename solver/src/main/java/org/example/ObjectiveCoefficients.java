@@ -0,0 +1,59 @@
+package org.example;
+
+/**
+ * The per-train objective coefficients for one set of weights.
+ *
+ * <p>Every train contributes {@code (reward + penalty) * isAssigned - penalty}, where
+ * {@code reward = branding * w_b + stabling * w_s} and {@code penalty = deviation * w_m}.
+ * The mileage deviations depend only on the fleet, so they are computed once per {@link FleetTable};
+ * applying a new weight vector is then a single branch-free pass over primitive arrays that the JIT can
+ * vectorise. A single solve computes its own set; {@link WeightSweep} keeps one set per thread and
+ * {@link #recompute}s it in place for every weight vector, so a sweep allocates no arrays per point.
+ */
+public final class ObjectiveCoefficients {
+
+    /** Mileage penalty of each train, paid when it is not assigned for cleaning. */
+    public final long[] penalty;
+    /** {@code reward + penalty} of each train; only meaningful for trains that require cleaning. */
+    public final long[] coefficient;
+
+    private ObjectiveCoefficients(int size) {
+        this.penalty = new long[size];
+        this.coefficient = new long[size];
+    }
+
+    public static ObjectiveCoefficients of(FleetTable fleet, Main.Weights weights) {
+        ObjectiveCoefficients coefficients = new ObjectiveCoefficients(fleet.size());
+        coefficients.recompute(fleet, weights);
+        return coefficients;
+    }
+
+    /**
+     * Overwrites the coefficients in place for a different weight vector over the same fleet.
+     */
+    public void recompute(FleetTable fleet, Main.Weights weights) {
+        compute(fleet.size(), fleet.deviation(), fleet.brandingScore, fleet.stablingScore,
+                weights.branding, weights.stabling, weights.mileagePenalty, penalty, coefficient);
+    }
+
+    static void compute(int n, long[] deviation, int[] branding, int[] stabling,
+                        long weightBranding, long weightStabling, long weightMileage,
+                        long[] penalty, long[] coefficient) {
+        for (int i = 0; i < n; i++) {
+            long p = deviation[i] * weightMileage;
+            penalty[i] = p;
+            coefficient[i] = branding[i] * weightBranding + stabling[i] * weightStabling + p;
+        }
+    }
+
+    /**
+     * @return the constant part of the objective: minus the sum of all penalties.
+     */
+    public long constant() {
+        long constant = 0;
+        for (long p : penalty) {
+            constant -= p;
+        }
+        return constant;
+    }
+}
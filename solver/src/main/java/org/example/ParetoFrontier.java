@@ -0,0 +1,214 @@
+package org.example;
+
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Enumerates the trade-off between branding and mileage balance instead of collapsing them into one weighted sum.
+ *
+ * <p>The two objectives are the total branding score of the trains assigned for cleaning (maximised) and the
+ * total mileage deviation of the trains left in service (minimised). The frontier is traced with the
+ * epsilon-constraint method over the engine's own {@code isAssigned} variables: one solve finds the largest
+ * achievable branding total, then each point requires {@code branding >= epsilon} for an evenly spaced epsilon
+ * and minimises the deviation. Branding breaks ties in that objective, so every point is Pareto-optimal
+ * rather than merely weakly so.
+ *
+ * <p>The model prefix (variables, cardinality constraint, hints and registered extensions) is built once;
+ * every point solves a clone of it with its own epsilon constraint and objective. Points are solved side by
+ * side, with the CP-SAT worker count capped as in {@link BatchSolver}.
+ */
+public class ParetoFrontier {
+
+    /**
+     * One trade-off on the frontier.
+     */
+    public static class Point {
+        public long brandingScore;      // Sum of brandingScore over the trains assigned for cleaning.
+        public long mileageDeviation;   // Sum of |distanceTravelled - avgFleetDistance| over the trains in service.
+        public List<String> assignedForCleaning = new ArrayList<>();
+    }
+
+    private final SelectionEngine engine;
+    private final int parallelism;
+    private final int cores;
+
+    /**
+     * @param parallelism the number of points solved at once, at most one per available core;
+     *                    0 means one per available core.
+     */
+    public ParetoFrontier(SelectionEngine engine, int parallelism) {
+        this.engine = engine;
+        this.cores = Runtime.getRuntime().availableProcessors();
+        this.parallelism = parallelism > 0 ? Math.min(parallelism, cores) : cores;
+    }
+
+    /**
+     * Solves up to {@code points} epsilon levels and returns the distinct non-dominated points, by increasing branding.
+     * Levels for which the model is infeasible (e.g. because of an extension) are left out.
+     *
+     * @throws IllegalArgumentException if the fleet has no config or {@code points < 2}.
+     */
+    public List<Point> compute(FleetTable fleet, int points) {
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        if (points < 2) {
+            throw new IllegalArgumentException("A frontier needs at least 2 points");
+        }
+        SelectionEngine.SelectionModel prefix = engine.buildModel(fleet);
+        prefix.model.clearObjective();
+
+        long[] deviation = fleet.deviation();
+        LinearExpr branding = branding(prefix);
+        // Upper bounds on the spread of each total; scaling one objective past the other's bound makes it dominate.
+        long brandingBound = 0;
+        for (int i = fleet.requiresCleaning.nextSetBit(0); i >= 0; i = fleet.requiresCleaning.nextSetBit(i + 1)) {
+            brandingBound += Math.abs((long) fleet.brandingScore[i]);
+        }
+        long deviationBound = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            deviationBound += deviation[i];
+        }
+
+        // Anchor: the largest branding total the constraints allow, with the best deviation among those plans.
+        CpModel anchorModel = prefix.model.getClone();
+        anchorModel.minimize(objective(prefix, deviation, deviationBound + 1, false));
+        PlanResult anchor = engine.solveModel(copy(prefix, anchorModel));
+        if (!anchor.hasSolution()) {
+            return new ArrayList<>();
+        }
+        long maxBranding = brandingOf(fleet, anchor.assigned);
+
+        // Shared read-only by every point; only the epsilon differs between them.
+        LinearExpr balanceFirst = objective(prefix, deviation, brandingBound + 1, true);
+        int threads = Math.min(parallelism, points);
+        int workersPerPoint = Math.max(1, cores / threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<PlanResult>> futures = new ArrayList<>(points);
+            for (int k = 0; k < points - 1; k++) {
+                long epsilon = maxBranding * k / (points - 1);
+                // Cloned here rather than on the pool threads: the prefix's proto builder is not safe to read concurrently.
+                CpModel model = prefix.model.getClone();
+                futures.add(executor.submit(() -> {
+                    model.addGreaterOrEqual(branding, epsilon);
+                    model.minimize(balanceFirst);
+                    return engine.solveModel(copy(prefix, model), workersPerPoint);
+                }));
+            }
+            List<PlanResult> plans = new ArrayList<>(points);
+            for (Future<PlanResult> future : futures) {
+                plans.add(await(future));
+            }
+            plans.add(anchor);
+            return nonDominated(fleet, plans);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LinearExpr branding(SelectionEngine.SelectionModel prefix) {
+        LinearExprBuilder expr = LinearExpr.newBuilder();
+        IntVar[] isAssigned = prefix.isAssigned;
+        for (int i = 0; i < isAssigned.length; i++) {
+            if (isAssigned[i] != null) {
+                expr.addTerm(isAssigned[i], prefix.fleet.brandingScore[i]);
+            }
+        }
+        return expr.build();
+    }
+
+    /**
+     * The deviation of the trains left in service, as {@code sum(deviation) - sum(deviation * isAssigned)}, combined
+     * with the branding total so that one of them decides and the other breaks ties. {@code scale} exceeds the
+     * spread of the tie-breaking total, so the two never trade against each other.
+     *
+     * @param deviationFirst true to minimise the deviation first, false to maximise branding first.
+     */
+    private static LinearExpr objective(SelectionEngine.SelectionModel prefix, long[] deviation, long scale,
+                                        boolean deviationFirst) {
+        LinearExprBuilder expr = LinearExpr.newBuilder();
+        IntVar[] isAssigned = prefix.isAssigned;
+        long constant = 0;
+        for (int i = 0; i < prefix.fleet.size(); i++) {
+            constant += deviation[i];
+            if (isAssigned[i] != null) {
+                long brandingScore = prefix.fleet.brandingScore[i];
+                expr.addTerm(isAssigned[i], deviationFirst
+                        ? -deviation[i] * scale - brandingScore
+                        : -brandingScore * scale - deviation[i]);
+            }
+        }
+        expr.add(deviationFirst ? constant * scale : constant);
+        return expr.build();
+    }
+
+    private static SelectionEngine.SelectionModel copy(SelectionEngine.SelectionModel prefix, CpModel model) {
+        return new SelectionEngine.SelectionModel(prefix.fleet, model, prefix.isAssigned, prefix.decisionVariables);
+    }
+
+    private static List<Point> nonDominated(FleetTable fleet, List<PlanResult> plans) {
+        long[] deviation = fleet.deviation();
+        List<Point> candidates = new ArrayList<>();
+        for (PlanResult plan : plans) {
+            if (!plan.hasSolution()) {
+                continue;
+            }
+            Point point = new Point();
+            point.brandingScore = brandingOf(fleet, plan.assigned);
+            for (int i = plan.assigned.nextClearBit(0); i < fleet.size(); i = plan.assigned.nextClearBit(i + 1)) {
+                point.mileageDeviation += deviation[i];
+            }
+            for (int i = plan.assigned.nextSetBit(0); i >= 0; i = plan.assigned.nextSetBit(i + 1)) {
+                point.assignedForCleaning.add(fleet.id(i));
+            }
+            candidates.add(point);
+        }
+        // By branding descending, then deviation ascending: a point survives only if it beats every
+        // deviation seen so far, i.e. no point with at least as much branding balances mileage as well.
+        candidates.sort(Comparator.comparingLong((Point p) -> -p.brandingScore).thenComparingLong(p -> p.mileageDeviation));
+        List<Point> frontier = new ArrayList<>();
+        long bestDeviation = Long.MAX_VALUE;
+        for (Point point : candidates) {
+            if (point.mileageDeviation < bestDeviation) {
+                frontier.add(0, point);
+                bestDeviation = point.mileageDeviation;
+            }
+        }
+        return frontier;
+    }
+
+    private static long brandingOf(FleetTable fleet, BitSet assigned) {
+        long total = 0;
+        for (int i = assigned.nextSetBit(0); i >= 0; i = assigned.nextSetBit(i + 1)) {
+            total += fleet.brandingScore[i];
+        }
+        return total;
+    }
+
+    private static PlanResult await(Future<PlanResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the frontier", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
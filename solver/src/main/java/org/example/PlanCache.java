@@ -0,0 +1,282 @@
+package org.example;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sits in front of a {@link SelectionEngine} and answers repeated fleet snapshots from memory.
+ *
+ * <p>Plans are keyed by a SHA-256 hash of the canonical input: the config (including its objective weights), the
+ * trains sorted by id and the previous plan, whose hints can steer CP-SAT to a different optimum. Two snapshots
+ * that only list the trains in a different order share an entry.
+ * Entries are evicted least-recently-used beyond {@code maxEntries} and after {@code ttl}. Concurrent
+ * requests for the same key are coalesced: only the first one solves, the others wait for its plan. With
+ * {@link SolveSlots}, only that leader takes a slot; the followers hold none while they wait, and each waits no
+ * longer than its own handle's deadline.
+ *
+ * <p>A cached plan still refers to the fleet it was solved for, so its train lists follow that request's order.
+ * Plans cut short by a {@link SolveHandle} are never stored, nor handed to the requests waiting on them: the
+ * leader's handle stopped that search, not theirs, so they solve again (one of them leading) instead.
+ */
+public class PlanCache {
+
+    private static final class CacheEntry {
+        final PlanResult plan;
+        final long expiresAt;
+
+        CacheEntry(PlanResult plan, long expiresAt) {
+            this.plan = plan;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Polling interval of a waiting follower, so that cancelling its handle ends the wait promptly.
+    private static final long FOLLOWER_POLL_NANOS = 100_000_000;
+
+    private final SelectionEngine engine;
+    private final SolveSlots slots;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, CacheEntry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<PlanResult>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public PlanCache(SelectionEngine engine, int maxEntries, Duration ttl) {
+        this(engine, maxEntries, ttl, null);
+    }
+
+    /**
+     * Like {@link #PlanCache(SelectionEngine, int, Duration)}, with every solve the cache runs waiting for a slot.
+     *
+     * @param slots the slots a leader takes before solving; null means none.
+     */
+    public PlanCache(SelectionEngine engine, int maxEntries, Duration ttl, SolveSlots slots) {
+        this.engine = engine;
+        this.slots = slots;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > PlanCache.this.maxEntries;
+            }
+        };
+    }
+
+    public PlanResult solve(FleetTable fleet) {
+        return solve(fleet, null);
+    }
+
+    /**
+     * Like {@link #solve(FleetTable)}, letting {@code handle} stop the solve if this request ends up running it, and
+     * bound the wait for a slot or for another request's solve. A request stopped before it has a plan gets one
+     * without an assignment, marked {@link PlanResult#interrupted}.
+     */
+    public PlanResult solve(FleetTable fleet, SolveHandle handle) {
+        if (fleet.config() == null) {
+            return engine.solve(fleet); // Rejected by the engine; nothing to cache.
+        }
+        String key = keyOf(fleet);
+        CompletableFuture<PlanResult> mine = new CompletableFuture<>();
+        while (true) {
+            PlanResult cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            CompletableFuture<PlanResult> leader = inFlight.putIfAbsent(key, mine);
+            if (leader == null) {
+                break;
+            }
+            coalesced.increment();
+            PlanResult shared = await(leader, handle);
+            if (shared == null) {
+                return PlanResult.stopped(fleet);
+            }
+            if (!shared.interrupted) {
+                return shared;
+            }
+        }
+        misses.increment();
+        try {
+            PlanResult plan;
+            if (slots != null && !slots.acquire(handle)) {
+                plan = PlanResult.stopped(fleet);
+            } else {
+                try {
+                    plan = engine.solve(fleet, null, handle);
+                } finally {
+                    if (slots != null) {
+                        slots.release();
+                    }
+                }
+            }
+            if (!plan.interrupted) {
+                store(key, plan);
+            }
+            mine.complete(plan);
+            return plan;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("coalesced", coalesced.sum());
+        return stats;
+    }
+
+    private PlanResult lookup(String key) {
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt > 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.plan;
+        }
+    }
+
+    private void store(String key, PlanResult plan) {
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(plan, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Waits for another request's solve, until the handle's deadline or its cancellation.
+     *
+     * @param handle null waits as long as the solve takes.
+     * @return the leader's plan, or null if the handle stopped the wait first.
+     */
+    private static PlanResult await(CompletableFuture<PlanResult> future, SolveHandle handle) {
+        try {
+            if (handle == null) {
+                return future.get();
+            }
+            while (!handle.isCancelled() && !handle.isExpired()) {
+                long wait = FOLLOWER_POLL_NANOS;
+                if (handle.hasDeadline()) {
+                    wait = Math.min(wait, (long) (handle.remainingSeconds() * 1e9));
+                }
+                try {
+                    return future.get(wait, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // Check the handle again.
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced solve", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // --- Canonical hash ---
+
+    String keyOf(FleetTable fleet) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            Main.Config config = fleet.config();
+            Main.Weights weights = SelectionEngine.weightsOf(config);
+            out.writeInt(weights.branding);
+            out.writeInt(weights.stabling);
+            out.writeInt(weights.mileagePenalty);
+            out.writeUTF(String.valueOf(config.objective));
+            out.writeInt(config.numCleaningSlots);
+            out.writeInt(config.avgFleetDistance);
+            Main.SolverParameters solver = config.solver;
+            out.writeBoolean(solver != null);
+            if (solver != null) {
+                out.writeInt(solver.numWorkers);
+                out.writeBoolean(solver.autoWorkers);
+                out.writeDouble(solver.maxTimeInSeconds);
+                out.writeDouble(solver.relativeGapLimit);
+            }
+
+            Integer[] order = new Integer[fleet.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Comparator<String> byId = Comparator.nullsFirst(Comparator.naturalOrder());
+            Arrays.sort(order, (a, b) -> byId.compare(fleet.id(a), fleet.id(b)));
+            out.writeInt(order.length);
+            for (int i : order) {
+                writeId(out, fleet.id(i));
+                out.writeBoolean(fleet.requiresCleaning(i));
+                out.writeInt(fleet.distanceTravelled(i));
+                out.writeInt(fleet.brandingScore(i));
+                out.writeInt(fleet.stablingScore(i));
+            }
+            // Withheld trains are not in the model, but they are part of the reported plan.
+            String[] withheld = fleet.withheld().keySet().toArray(new String[0]);
+            Arrays.sort(withheld, byId);
+            out.writeInt(withheld.length);
+            for (String id : withheld) {
+                writeId(out, id);
+                out.writeUTF(fleet.withheld().get(id));
+            }
+            String[] hinted = fleet.previousAssignment().keySet().toArray(new String[0]);
+            Arrays.sort(hinted, byId);
+            out.writeInt(hinted.length);
+            for (String id : hinted) {
+                writeId(out, id);
+                out.writeBoolean(fleet.previousAssignment().get(id));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    /**
+     * Writes an id with its length, after a presence flag so that a missing id and the id "null" differ.
+     */
+    private static void writeId(DataOutputStream out, String id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeUTF(id);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example;
+
+/**
+ * Receives the improving plans of a CP-SAT search while it is still running.
+ *
+ * <p>Each plan is a usable assignment with status {@code FEASIBLE}, its objective value and, in its statistics,
+ * the best bound proven so far; successive plans have strictly better objectives. The final plan is not
+ * delivered here but returned by the solve call. Calls arrive on a solver thread, one at a time, and block the
+ * search while they run. A listener that throws stops the search, and the solve call rethrows its exception.
+ */
+@FunctionalInterface
+public interface PlanListener {
+
+    void onPlan(PlanResult plan);
+}
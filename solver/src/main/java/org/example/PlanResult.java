@@ -0,0 +1,94 @@
+package org.example;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a single cleaning-slot selection: the solver status, the objective value and
+ * the set of fleet positions assigned for cleaning. Every other train proceeds to service.
+ *
+ * <p>The assignment is kept as a bit set over {@link FleetTable} positions; the train lists exposed to
+ * Jackson (and to the console report) are materialised only when they are asked for.
+ */
+public class PlanResult {
+
+    /**
+     * Identifies which engine produced the plan.
+     */
+    public enum SolvePath {
+        CLOSED_FORM, // The separable model was answered with a top-k selection, without calling CP-SAT.
+        CP_SAT       // The model was handed to the CP-SAT solver.
+    }
+
+    public CpSolverStatus status;
+    public SolvePath solvePath;
+    public double objectiveValue;
+    public SolveStatistics statistics;
+    public boolean interrupted; // True if cancellation or a deadline ended the search before optimality was proven.
+
+    @JsonIgnore
+    public FleetTable fleet;
+    @JsonIgnore
+    public final BitSet assigned = new BitSet();
+
+    /**
+     * @return the plan of a solve that was stopped before it could start, e.g. while waiting for a solver:
+     *         no assignment, status {@code UNKNOWN}, and {@link #interrupted} set.
+     */
+    static PlanResult stopped(FleetTable fleet) {
+        PlanResult result = new PlanResult();
+        result.status = CpSolverStatus.UNKNOWN;
+        result.fleet = fleet;
+        result.interrupted = true;
+        return result;
+    }
+
+    /**
+     * @return true if the plan holds a usable assignment (optimal or feasible).
+     */
+    public boolean hasSolution() {
+        return status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE;
+    }
+
+    public boolean isAssigned(int position) {
+        return assigned.get(position);
+    }
+
+    public int assignedCount() {
+        return assigned.cardinality();
+    }
+
+    public List<Main.Train> getAssignedForCleaning() {
+        List<Main.Train> trains = new ArrayList<>();
+        if (hasSolution()) {
+            for (int i = assigned.nextSetBit(0); i >= 0; i = assigned.nextSetBit(i + 1)) {
+                trains.add(fleet.train(i));
+            }
+        }
+        return trains;
+    }
+
+    /**
+     * @return the trains that were not eligible to run and were left out of the model, keyed by id, with the reason.
+     *         They are neither assigned for cleaning nor going to service.
+     */
+    public Map<String, String> getWithheld() {
+        return fleet == null ? Collections.emptyMap() : fleet.withheld();
+    }
+
+    public List<Main.Train> getGoingToService() {
+        List<Main.Train> trains = new ArrayList<>();
+        if (hasSolution()) {
+            for (int i = assigned.nextClearBit(0); i < fleet.size(); i = assigned.nextClearBit(i + 1)) {
+                trains.add(fleet.train(i));
+            }
+        }
+        return trains;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persists each solved plan so it can seed the next run as a warm start.
+ *
+ * <p>The file holds the assignment of every cleaning candidate (train id -> assigned) in the same shape as
+ * {@link Main.InputData#previousAssignment}. Writes go to a temporary file that is then moved into place,
+ * so a crash mid-write never leaves a truncated plan behind.
+ */
+public class PlanStore {
+
+    /**
+     * The on-disk form of a stored plan.
+     */
+    public static class StoredPlan {
+        public String savedAt;
+        public double objectiveValue;
+        public Map<String, Boolean> assignment;
+    }
+
+    private final Path path;
+    private final ObjectMapper mapper;
+
+    public PlanStore(Path path, ObjectMapper mapper) {
+        this.path = path;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return the stored assignment, or an empty map if no plan has been saved yet.
+     */
+    public Map<String, Boolean> load() throws IOException {
+        if (!Files.exists(path)) {
+            return Collections.emptyMap();
+        }
+        StoredPlan plan = mapper.readValue(path.toFile(), StoredPlan.class);
+        return plan.assignment == null ? Collections.emptyMap() : plan.assignment;
+    }
+
+    /**
+     * Saves the assignment of every cleaning candidate in the plan. Plans without a solution are not stored,
+     * so the previous good plan stays available.
+     */
+    public void save(PlanResult result) throws IOException {
+        if (!result.hasSolution()) {
+            return;
+        }
+        StoredPlan plan = new StoredPlan();
+        plan.savedAt = Instant.now().toString();
+        plan.objectiveValue = result.objectiveValue;
+        plan.assignment = assignmentOf(result);
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "plan", ".tmp");
+        mapper.writeValue(temp.toFile(), plan);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Map<String, Boolean> assignmentOf(PlanResult result) {
+        FleetTable fleet = result.fleet;
+        Map<String, Boolean> assignment = new LinkedHashMap<>();
+        for (int i = fleet.requiresCleaning.nextSetBit(0); i >= 0; i = fleet.requiresCleaning.nextSetBit(i + 1)) {
+            assignment.put(fleet.id(i), result.isAssigned(i));
+        }
+        return assignment;
+    }
+}
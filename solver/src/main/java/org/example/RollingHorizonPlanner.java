@@ -0,0 +1,334 @@
+package org.example;
+
+import com.google.ortools.sat.BoolArgumentProto;
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.Constraint;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearConstraintProto;
+import com.google.ortools.sat.LinearExprBuilder;
+import com.google.ortools.sat.Literal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans cleaning slots for a rolling window of days instead of tonight only.
+ *
+ * <p>One {@link CpModel} holds an {@code isAssigned} variable per candidate train per day, each day's
+ * {@code numCleaningSlots} limit and, per train, an at-most-one constraint across the window's days: a train that
+ * requires cleaning is cleaned at most once in any {@code H} consecutive days. Cleaning a train sooner is worth more: on offset {@code k} of a window of {@code H}
+ * days it contributes {@code (reward + penalty) * (H - k)}, its reward and mileage relief for every remaining day
+ * of the window. With {@code H = 1} this is exactly tonight's objective. Registered model extensions are applied
+ * to every day.
+ *
+ * <p>{@link #advance()} slides the window without rebuilding anything: the first day's variables are fixed to the
+ * plan that was carried out, and a new day's variables and slot limit are appended. The at-most-one constraints
+ * are rewritten to cover the new window, and a train cleaned on the closed day is held out of the next
+ * {@code H - 1} days, so that closed day still counts against it. Only the objective and the hints are rewritten before the next solve, and the
+ * previous plan for the days still in the window seeds it. Past days stay in the model as fixed variables, which
+ * presolve removes, so a planner is meant to live for weeks rather than indefinitely.
+ *
+ * <p>Branding contracts in {@code config.contracts} are enforced as one linear constraint each: the contract's
+ * trains cleaned in the window, on or before its end day, may cost no more exposure than the contract has to
+ * spare given what an {@link ExposureLedger} says it has accumulated over the closed days. Days after the window
+ * are counted as if every train runs, so a contract ending beyond the window is held to what it needs at the
+ * least. A contract that can no longer be met keeps all its trains in service until it ends; the solve still
+ * succeeds, so such a contract is reported through {@link ContractExposure#met} and {@link HorizonPlan#contractsMet}
+ * rather than through the status. The constraints are rewritten in place before every solve, and closing a day
+ * updates the ledger from that day's cleanings alone.
+ *
+ * <p>Not thread-safe on its own; the public methods synchronize on the planner.
+ */
+public class RollingHorizonPlanner {
+
+    /**
+     * The trains assigned for cleaning on one day.
+     */
+    public static class DayPlan {
+        public int day;
+        public List<String> assignedForCleaning = new ArrayList<>();
+    }
+
+    /**
+     * The plan for the current window, first day first.
+     */
+    public static class HorizonPlan {
+        public CpSolverStatus status;
+        public double objectiveValue;
+        public List<DayPlan> days = new ArrayList<>();
+        public List<ContractExposure> contracts = new ArrayList<>();
+        public boolean contractsMet;   // Every contract is met under the plan; see ContractExposure#met.
+        public SolveStatistics statistics;
+    }
+
+    /**
+     * Where one branding contract stands under the current plan.
+     *
+     * <p>{@code projectedHours} assumes every train runs on the days between the window and the end day, so a
+     * contract that is not {@code met} falls short whatever later plans do, by at least {@code shortfallHours}.
+     */
+    public static class ContractExposure {
+        public String contractId;
+        public int endDay;
+        public long minExposureHours;
+        public long deliveredHours;   // Accumulated over the closed days up to the end day.
+        public long plannedHours;     // Delivered plus what the planned days of the window add up to the end day.
+        public long projectedHours;   // Planned plus full exposure for the days after the window up to the end day.
+        public boolean met;           // projectedHours reaches minExposureHours.
+        public long shortfallHours;   // How far projectedHours falls below minExposureHours, or 0.
+    }
+
+    private final SelectionEngine engine;
+    private final FleetTable fleet;
+    private final int horizon;
+    private final long[] coefficient;
+    private final int[] candidates;
+    private final CpModel model = new CpModel();
+    // Absolute day -> decision variables indexed by fleet position (null for trains that do not require cleaning).
+    private final List<IntVar[]> days = new ArrayList<>();
+    // Candidate index -> the train's at-most-one constraint across the window's days.
+    private final Constraint[] onceOnly;
+    // Absolute day -> the trains assigned in the latest plan covering it.
+    private final Map<Integer, BitSet> plans = new HashMap<>();
+    private final ExposureLedger ledger;
+    // Contract -> the candidates carrying its wrap, and its exposure constraint.
+    private final int[][] contractCandidates;
+    private final Constraint[] exposure;
+    private int firstDay;
+
+    /**
+     * @param horizonDays the window length; day 0 is tonight.
+     * @throws IllegalArgumentException if the fleet has no config, the horizon is not positive, or the branding
+     *                                  contracts are invalid (see {@link ExposureLedger}).
+     */
+    public RollingHorizonPlanner(SelectionEngine engine, FleetTable fleet, int horizonDays) {
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("The horizon must cover at least one day");
+        }
+        this.engine = engine;
+        this.fleet = fleet;
+        this.horizon = horizonDays;
+        this.coefficient = ObjectiveCoefficients.of(fleet, SelectionEngine.weightsOf(fleet.config())).coefficient;
+        this.candidates = fleet.requiresCleaning.stream().toArray();
+        this.onceOnly = new Constraint[candidates.length];
+        for (int day = 0; day < horizonDays; day++) {
+            appendDay();
+        }
+        this.ledger = new ExposureLedger(fleet);
+        this.contractCandidates = new int[ledger.contractCount()][];
+        this.exposure = new Constraint[ledger.contractCount()];
+        for (int c = 0; c < ledger.contractCount(); c++) {
+            int contract = c;
+            contractCandidates[c] = Arrays.stream(candidates).filter(i -> ledger.contractOf(i) == contract).toArray();
+            exposure[c] = model.addLinearConstraint(LinearExpr.newBuilder(), 0, 0);
+        }
+    }
+
+    /**
+     * @return the absolute index of the window's first day; 0 until the window is first advanced.
+     */
+    public synchronized int firstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return the exposure accumulated by each branding contract over the closed days.
+     */
+    public synchronized ExposureLedger ledger() {
+        return ledger;
+    }
+
+    /**
+     * Solves the current window.
+     */
+    public synchronized HorizonPlan solve() {
+        for (int c = 0; c < exposure.length; c++) {
+            limitExposureLoss(c);
+        }
+        model.clearObjective();
+        LinearExprBuilder objective = LinearExpr.newBuilder();
+        model.clearHints();
+        for (int k = 0; k < horizon; k++) {
+            int day = firstDay + k;
+            IntVar[] isAssigned = days.get(day);
+            BitSet previous = plans.get(day);
+            for (int i : candidates) {
+                objective.addTerm(isAssigned[i], coefficient[i] * (horizon - k));
+                if (previous != null) {
+                    model.addHint(isAssigned[i], previous.get(i) ? 1 : 0);
+                }
+            }
+        }
+        model.maximize(objective.build());
+
+        CpSolverResponse response = engine.solveRaw(model, fleet.config(), candidates.length * horizon);
+        HorizonPlan plan = new HorizonPlan();
+        plan.status = response.getStatus();
+        plan.statistics = SolveStatistics.from(response, model.model());
+        if (plan.status != CpSolverStatus.OPTIMAL && plan.status != CpSolverStatus.FEASIBLE) {
+            return plan;
+        }
+        plan.objectiveValue = response.getObjectiveValue();
+        for (int k = 0; k < horizon; k++) {
+            int day = firstDay + k;
+            IntVar[] isAssigned = days.get(day);
+            BitSet assigned = new BitSet();
+            DayPlan dayPlan = new DayPlan();
+            dayPlan.day = day;
+            for (int i : candidates) {
+                if (response.getSolution(isAssigned[i].getIndex()) == 1) {
+                    assigned.set(i);
+                    dayPlan.assignedForCleaning.add(fleet.id(i));
+                }
+            }
+            plans.put(day, assigned);
+            plan.days.add(dayPlan);
+        }
+        plan.contractsMet = true;
+        for (int c = 0; c < exposure.length; c++) {
+            ContractExposure report = exposureOf(c);
+            plan.contracts.add(report);
+            plan.contractsMet &= report.met;
+        }
+        return plan;
+    }
+
+    /**
+     * Rewrites contract {@code c}'s constraint for the current window: at most as many of its trains may be cleaned
+     * on the window's days up to its end day as its spare exposure covers, the spare being what it would exceed its
+     * minimum by if none of its trains were cleaned from now on.
+     */
+    private void limitExposureLoss(int c) {
+        Main.BrandingContract contract = ledger.contract(c);
+        LinearConstraintProto.Builder linear = exposure[c].getBuilder().getLinearBuilder()
+                .clearVars().clearCoeffs().clearDomain();
+        int daysLeft = contract.endDay - firstDay + 1;
+        long limit = 0;
+        if (daysLeft > 0 && ledger.hoursPerDay() > 0) {
+            long spare = ledger.delivered(c) + ledger.fullDay(c) * daysLeft - contract.minExposureHours;
+            limit = Math.max(0, spare / ledger.hoursPerDay());
+            for (int k = 0; k < Math.min(horizon, daysLeft); k++) {
+                IntVar[] isAssigned = days.get(firstDay + k);
+                for (int i : contractCandidates[c]) {
+                    linear.addVars(isAssigned[i].getIndex()).addCoeffs(1);
+                }
+            }
+        }
+        linear.addDomain(0).addDomain(limit);
+    }
+
+    private ContractExposure exposureOf(int c) {
+        Main.BrandingContract contract = ledger.contract(c);
+        ContractExposure report = new ContractExposure();
+        report.contractId = contract.id;
+        report.endDay = contract.endDay;
+        report.minExposureHours = contract.minExposureHours;
+        report.deliveredHours = ledger.delivered(c);
+        report.plannedHours = report.deliveredHours;
+        for (int day = firstDay; day < firstDay + horizon && day <= contract.endDay; day++) {
+            BitSet assigned = plans.get(day);
+            report.plannedHours += ledger.fullDay(c);
+            for (int i : contractCandidates[c]) {
+                if (assigned.get(i)) {
+                    report.plannedHours -= ledger.hoursPerDay();
+                }
+            }
+        }
+        int daysAfterWindow = Math.max(0, contract.endDay - (firstDay + horizon - 1));
+        report.projectedHours = report.plannedHours + ledger.fullDay(c) * daysAfterWindow;
+        report.shortfallHours = Math.max(0, contract.minExposureHours - report.projectedHours);
+        report.met = report.shortfallHours == 0;
+        return report;
+    }
+
+    /**
+     * Closes the window's first day as planned by the latest {@link #solve()} and appends a new last day.
+     *
+     * @throws IllegalStateException if the first day has not been planned yet.
+     */
+    public synchronized void advance() {
+        BitSet planned = plans.get(firstDay);
+        if (planned == null) {
+            throw new IllegalStateException("Day " + firstDay + " has not been planned; call solve() first");
+        }
+        close(planned);
+    }
+
+    /**
+     * Closes the window's first day with the trains that were actually cleaned, which may differ from the plan,
+     * and appends a new last day.
+     *
+     * @throws IllegalArgumentException if an id is unknown or names a train that did not require cleaning.
+     */
+    public synchronized void advance(Collection<String> cleanedTrainIds) {
+        BitSet cleaned = new BitSet();
+        for (String id : cleanedTrainIds) {
+            int i = fleet.indexOf(id);
+            if (i < 0 || !fleet.requiresCleaning(i)) {
+                throw new IllegalArgumentException("Not a cleaning candidate: " + id);
+            }
+            cleaned.set(i);
+        }
+        close(cleaned);
+    }
+
+    private void close(BitSet cleaned) {
+        int closedDay = firstDay;
+        for (int i : candidates) {
+            fix(days.get(closedDay)[i], cleaned.get(i) ? 1 : 0);
+        }
+        plans.put(closedDay, cleaned);
+        ledger.record(cleaned);
+        firstDay++;
+        appendDay();
+        for (int c = 0; c < candidates.length; c++) {
+            int i = candidates[c];
+            if (cleaned.get(i)) {
+                // The closed day leaves the window but still counts: no second cleaning within horizon days of it.
+                for (int day = closedDay + 1; day < closedDay + horizon; day++) {
+                    fix(days.get(day)[i], 0);
+                }
+            }
+            BoolArgumentProto.Builder window = onceOnly[c].getBuilder().getAtMostOneBuilder().clearLiterals();
+            for (int day = firstDay; day < firstDay + horizon; day++) {
+                window.addLiterals(days.get(day)[i].getIndex());
+            }
+        }
+    }
+
+    private static void fix(IntVar var, long value) {
+        var.getBuilder().clearDomain().addDomain(value).addDomain(value);
+    }
+
+    private void appendDay() {
+        int day = days.size();
+        IntVar[] isAssigned = new IntVar[fleet.size()];
+        IntVar[] dayVars = new IntVar[candidates.length];
+        for (int c = 0; c < candidates.length; c++) {
+            int i = candidates[c];
+            BoolVar var = model.newBoolVar("isAssigned_" + fleet.id(i) + "_d" + day);
+            isAssigned[i] = var;
+            dayVars[c] = var;
+            if (onceOnly[c] == null) {
+                onceOnly[c] = model.addAtMostOne(new Literal[] {var});
+            } else {
+                onceOnly[c].getBuilder().getAtMostOneBuilder().addLiterals(var.getIndex());
+            }
+        }
+        model.addLessOrEqual(LinearExpr.sum(dayVars), fleet.config().numCleaningSlots);
+        engine.applyExtensions(model, fleet, isAssigned);
+        days.add(isAssigned);
+    }
+}
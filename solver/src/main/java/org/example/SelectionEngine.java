@@ -0,0 +1,659 @@
+package org.example;
+
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpModelProto;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverSolutionCallback;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+import com.google.ortools.sat.SatParameters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects the trains that receive a cleaning slot.
+ *
+ * <p>The base model is a single cardinality constraint over the {@code isAssigned} variables plus a
+ * separable objective: every candidate contributes {@code (reward + penalty) * isAssigned - penalty}.
+ * Its optimum is simply the {@code numCleaningSlots} candidates with the largest positive
+ * {@code reward + penalty}, so as long as no extra constraints have been registered the engine answers
+ * with an O(n) quickselect over primitive arrays and never touches the native solver.
+ * Once a {@link ModelExtension} is added the structure is no longer guaranteed, and the engine
+ * builds the full CP-SAT model instead.
+ *
+ * <p>The objective weights are read from each input's {@code config.weights}, so one engine serves
+ * requests with different weights; both paths take their coefficients from {@link ObjectiveCoefficients}.
+ * An input whose {@code config.objective} is {@link Main.ObjectiveMode#LEXICOGRAPHIC} is always solved with
+ * CP-SAT, one stage per goal.
+ */
+public class SelectionEngine {
+
+    /**
+     * Adds constraints on top of the base cleaning-slot model. Any registered extension forces the CP-SAT path.
+     */
+    public interface ModelExtension {
+        /**
+         * @param model      the model holding the base cardinality constraint and objective.
+         * @param fleet      the fleet the model was built from.
+         * @param isAssigned the decision variable of each train, indexed by fleet position;
+         *                   null for trains that do not require cleaning.
+         */
+        void apply(CpModel model, FleetTable fleet, IntVar[] isAssigned);
+    }
+
+    private static final Main.Weights DEFAULT_WEIGHTS = new Main.Weights();
+
+    private final List<ModelExtension> extensions = new ArrayList<>();
+    private SolverMetrics metrics = new SolverMetrics();
+    private SolveBackend backend = SolveBackend.IN_PROCESS;
+
+    public SelectionEngine addExtension(ModelExtension extension) {
+        extensions.add(extension);
+        return this;
+    }
+
+    /**
+     * Records this engine's model-build and solve phases into the given registry instead of its own.
+     */
+    public SelectionEngine withMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Sends CP-SAT solves to the given backend, e.g. a {@link WorkerPool}, instead of solving in this JVM.
+     */
+    public SelectionEngine withBackend(SolveBackend backend) {
+        this.backend = backend;
+        return this;
+    }
+
+    /**
+     * @return the weights the given config asks for, or the defaults if it sent an explicit null.
+     */
+    public static Main.Weights weightsOf(Main.Config config) {
+        return config.weights != null ? config.weights : DEFAULT_WEIGHTS;
+    }
+
+    public SolverMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return true if the model is the plain cardinality-plus-separable-objective form that the
+     *         closed-form selection answers exactly.
+     */
+    public boolean isSeparable() {
+        return extensions.isEmpty();
+    }
+
+    /**
+     * @return true if the fleet can be answered by the closed-form selection.
+     */
+    private boolean isClosedForm(FleetTable fleet) {
+        return isSeparable() && fleet.config().objective != Main.ObjectiveMode.LEXICOGRAPHIC;
+    }
+
+    /**
+     * Computes the optimal cleaning assignment for the given input.
+     */
+    public PlanResult solve(Main.InputData data) {
+        return solve(FleetTable.of(data));
+    }
+
+    /**
+     * Streams an {@link Main.InputData} document straight into the columnar fleet and solves it,
+     * without ever building the document string or the {@code List<Train>} graph.
+     *
+     * @throws IllegalArgumentException if the document has no 'config' block.
+     */
+    public PlanResult solve(InputStream in, FleetStreamReader reader) throws IOException {
+        return solve(parse(in, reader));
+    }
+
+    /**
+     * Streams an {@link Main.InputData} document into a new fleet table, recording the PARSE phase.
+     * Trains that are not eligible to run are withheld from the table; see {@link EligibilityFilter}.
+     */
+    public FleetTable parse(InputStream in, FleetStreamReader reader) throws IOException {
+        long start = System.nanoTime();
+        FleetTable fleet = new FleetTable();
+        reader.read(in, new EligibilityFilter(fleet));
+        metrics.record(SolverMetrics.Phase.PARSE, System.nanoTime() - start);
+        return fleet;
+    }
+
+    public PlanResult solve(FleetTable fleet) {
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        return solve(fleet, weightsOf(fleet.config()));
+    }
+
+    /**
+     * Solves the fleet under the given weights instead of the ones in its config. The fleet is only read,
+     * so several weight vectors can be solved against the same table concurrently.
+     */
+    public PlanResult solve(FleetTable fleet, Main.Weights weights) {
+        return solve(fleet, weights, 0);
+    }
+
+    /**
+     * Like {@link #solve(FleetTable, Main.Weights)}, but never lets CP-SAT use more than {@code maxWorkers}
+     * search workers. Used when several fleets or weight vectors are solved side by side.
+     *
+     * @param maxWorkers the worker cap; 0 means no cap.
+     */
+    public PlanResult solve(FleetTable fleet, Main.Weights weights, int maxWorkers) {
+        return solve(fleet, weights, maxWorkers, null, null);
+    }
+
+    /**
+     * Like {@link #solve(FleetTable, Main.Weights, int)}, while {@code handle} (which may be null) can stop the search.
+     */
+    PlanResult solve(FleetTable fleet, Main.Weights weights, int maxWorkers, SolveHandle handle) {
+        return solve(fleet, weights, maxWorkers, null, handle);
+    }
+
+    /**
+     * Like {@link #solve(FleetTable, Main.Weights, int)}, but takes the objective from {@code coefficients}, which
+     * must already hold the weights over this fleet. Lets a caller that solves many weight vectors keep one set
+     * and {@link ObjectiveCoefficients#recompute} it in place instead of allocating a new one per solve.
+     */
+    PlanResult solve(FleetTable fleet, ObjectiveCoefficients coefficients, int maxWorkers) {
+        return solve(fleet, coefficients, maxWorkers, null, null);
+    }
+
+    /**
+     * Solves the fleet under its own config, reporting every improving plan to {@code listener} while CP-SAT
+     * searches. The closed-form selection and lexicographic solves have no intermediate plans to report, and
+     * neither do solves sent to a {@link WorkerPool}; the listener is then never called.
+     */
+    public PlanResult solve(FleetTable fleet, PlanListener listener) {
+        return solve(fleet, listener, null);
+    }
+
+    /**
+     * Solves the fleet under its own config while {@code handle} can stop the search; if it does, the plan holds
+     * the best assignment found so far and {@link PlanResult#interrupted} is set. Either argument may be null.
+     *
+     * @see #solve(FleetTable, PlanListener)
+     */
+    public PlanResult solve(FleetTable fleet, PlanListener listener, SolveHandle handle) {
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        return solve(fleet, weightsOf(fleet.config()), 0, listener, handle);
+    }
+
+    private PlanResult solve(FleetTable fleet, Main.Weights weights, int maxWorkers, PlanListener listener,
+                             SolveHandle handle) {
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        return solve(fleet, ObjectiveCoefficients.of(fleet, weights), maxWorkers, listener, handle);
+    }
+
+    private PlanResult solve(FleetTable fleet, ObjectiveCoefficients coefficients, int maxWorkers,
+                             PlanListener listener, SolveHandle handle) {
+        if (isClosedForm(fleet)) {
+            return solveClosedForm(fleet, coefficients);
+        }
+        SelectionModel selection = buildModel(fleet, coefficients);
+        if (fleet.config().objective == Main.ObjectiveMode.LEXICOGRAPHIC) {
+            return solveLexicographic(selection, coefficients, maxWorkers, handle);
+        }
+        return solveModel(selection, maxWorkers, listener, handle);
+    }
+
+    // --- Closed-form path ---
+
+    private PlanResult solveClosedForm(FleetTable fleet, ObjectiveCoefficients objectiveCoefficients) {
+        int slots = fleet.config().numCleaningSlots;
+
+        PlanResult result = new PlanResult();
+        result.solvePath = PlanResult.SolvePath.CLOSED_FORM;
+        result.fleet = fleet;
+        if (slots < 0) {
+            // The cardinality constraint cannot be met even by assigning nobody.
+            result.status = CpSolverStatus.INFEASIBLE;
+            return result;
+        }
+
+        long buildStart = System.nanoTime();
+        // The constant part of the objective: every train's penalty is subtracted once.
+        long objective = objectiveCoefficients.constant();
+
+        // The coefficients of the candidates worth assigning at all.
+        BitSet requiresCleaning = fleet.requiresCleaning;
+        int[] positions = new int[fleet.candidateCount()];
+        long[] coefficients = new long[positions.length];
+        int candidates = 0;
+        for (int i = requiresCleaning.nextSetBit(0); i >= 0; i = requiresCleaning.nextSetBit(i + 1)) {
+            long coefficient = objectiveCoefficients.coefficient[i];
+            // A non-positive coefficient can never improve the objective, so leaving it unassigned is optimal.
+            if (coefficient > 0) {
+                coefficients[candidates] = coefficient;
+                positions[candidates] = i;
+                candidates++;
+            }
+        }
+
+        long solveStart = System.nanoTime();
+        metrics.record(SolverMetrics.Phase.MODEL_BUILD, solveStart - buildStart);
+
+        int k = Math.min(slots, candidates);
+        if (k < candidates) {
+            selectTopK(coefficients, positions, 0, candidates - 1, k);
+        }
+        for (int c = 0; c < k; c++) {
+            objective += coefficients[c];
+            result.assigned.set(positions[c]);
+        }
+        result.status = CpSolverStatus.OPTIMAL;
+        result.objectiveValue = objective;
+        long end = System.nanoTime();
+        result.statistics = SolveStatistics.closedForm(objective, end - buildStart, positions.length);
+        metrics.record(SolverMetrics.Phase.SOLVE, end - solveStart);
+        metrics.recordModel(positions.length, 1, positions.length);
+        return result;
+    }
+
+    /**
+     * Rearranges {@code keys[lo..hi]} (and {@code values} alongside it) so that the {@code k} largest keys
+     * occupy the first {@code k} slots of the range. Iterative Hoare-style quickselect with a
+     * median-of-three pivot; expected O(n).
+     */
+    static void selectTopK(long[] keys, int[] values, int lo, int hi, int k) {
+        int target = lo + k - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            // Median-of-three ordered descending, so the pivot ends up in keys[mid].
+            if (keys[mid] > keys[lo]) swap(keys, values, lo, mid);
+            if (keys[hi] > keys[lo]) swap(keys, values, lo, hi);
+            if (keys[hi] > keys[mid]) swap(keys, values, mid, hi);
+            long pivot = keys[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] > pivot) i++;
+                while (keys[j] < pivot) j--;
+                if (i <= j) {
+                    swap(keys, values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // keys[lo..j] >= pivot, keys[i..hi] <= pivot, anything in between equals the pivot.
+            if (target <= j) {
+                hi = j;
+            } else if (target >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(long[] keys, int[] values, int a, int b) {
+        long k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        int v = values[a];
+        values[a] = values[b];
+        values[b] = v;
+    }
+
+    // --- CP-SAT path ---
+
+    /**
+     * The CP-SAT form of the selection problem, with the decision variable of each train indexed by fleet position
+     * (null for trains that do not require cleaning).
+     */
+    public static class SelectionModel {
+        public final FleetTable fleet;
+        public final CpModel model;
+        public final IntVar[] isAssigned;
+        public final int decisionVariables;
+
+        SelectionModel(FleetTable fleet, CpModel model, IntVar[] isAssigned, int decisionVariables) {
+            this.fleet = fleet;
+            this.model = model;
+            this.isAssigned = isAssigned;
+            this.decisionVariables = decisionVariables;
+        }
+    }
+
+    /**
+     * Builds the CP-SAT model: one BoolVar per candidate, the cardinality constraint, the objective
+     * and every registered extension.
+     */
+    public SelectionModel buildModel(FleetTable fleet) {
+        return buildModel(fleet, weightsOf(fleet.config()));
+    }
+
+    /**
+     * Like {@link #buildModel(FleetTable)}, with the objective weighted by {@code weights} instead of the config's.
+     */
+    public SelectionModel buildModel(FleetTable fleet, Main.Weights weights) {
+        return buildModel(fleet, ObjectiveCoefficients.of(fleet, weights));
+    }
+
+    private SelectionModel buildModel(FleetTable fleet, ObjectiveCoefficients coefficients) {
+        long start = System.nanoTime();
+        int n = fleet.size();
+        CpModel model = new CpModel();
+
+        IntVar[] isAssigned = new IntVar[n];
+        IntVar[] assignedVars = new IntVar[fleet.candidateCount()];
+        int v = 0;
+        BitSet requiresCleaning = fleet.requiresCleaning;
+        for (int i = requiresCleaning.nextSetBit(0); i >= 0; i = requiresCleaning.nextSetBit(i + 1)) {
+            isAssigned[i] = model.newBoolVar("isAssigned_" + fleet.ids[i]);
+            assignedVars[v++] = isAssigned[i];
+        }
+        // The number of trains chosen for cleaning may not exceed the available slots.
+        model.addLessOrEqual(LinearExpr.sum(assignedVars), fleet.config().numCleaningSlots);
+
+        // Maximize (reward * isAssigned) - (penalty * (1 - isAssigned)), simplified to
+        // (reward + penalty) * isAssigned - penalty. Trains that do not require cleaning stay in
+        // service, so their penalty is subtracted unconditionally.
+        LinearExprBuilder objective = LinearExpr.newBuilder();
+        for (int i = requiresCleaning.nextSetBit(0); i >= 0; i = requiresCleaning.nextSetBit(i + 1)) {
+            objective.addTerm(isAssigned[i], coefficients.coefficient[i]);
+        }
+        objective.add(coefficients.constant());
+        model.maximize(objective.build());
+
+        // Warm start: the previous plan seeds the search. Trains it does not mention get no hint.
+        Map<String, Boolean> previous = fleet.previousAssignment();
+        if (!previous.isEmpty()) {
+            for (int i = requiresCleaning.nextSetBit(0); i >= 0; i = requiresCleaning.nextSetBit(i + 1)) {
+                Boolean wasAssigned = previous.get(fleet.ids[i]);
+                if (wasAssigned != null) {
+                    model.addHint(isAssigned[i], wasAssigned ? 1 : 0);
+                }
+            }
+        }
+
+        applyExtensions(model, fleet, isAssigned);
+        metrics.record(SolverMetrics.Phase.MODEL_BUILD, System.nanoTime() - start);
+        return new SelectionModel(fleet, model, isAssigned, assignedVars.length);
+    }
+
+    /**
+     * Adds the constraints of every registered extension for one set of selection variables.
+     */
+    void applyExtensions(CpModel model, FleetTable fleet, IntVar[] isAssigned) {
+        for (ModelExtension extension : extensions) {
+            extension.apply(model, fleet, isAssigned);
+        }
+    }
+
+    /**
+     * Hands a built model to CP-SAT and extracts the assignment.
+     */
+    public PlanResult solveModel(SelectionModel selection) {
+        return solveModel(selection, 0);
+    }
+
+    /**
+     * Like {@link #solveModel(SelectionModel)}, but never lets CP-SAT use more than {@code maxWorkers}
+     * search workers, whatever the config asks for. Used when several models are solved side by side.
+     *
+     * @param maxWorkers the worker cap; 0 means no cap.
+     */
+    public PlanResult solveModel(SelectionModel selection, int maxWorkers) {
+        return solveModel(selection, maxWorkers, null, null);
+    }
+
+    private PlanResult solveModel(SelectionModel selection, int maxWorkers, PlanListener listener, SolveHandle handle) {
+        long start = System.nanoTime();
+        SatParameters.Builder parameters = parametersFor(selection.fleet.config(), selection.decisionVariables, maxWorkers);
+        // Set when the handle's deadline, rather than the config, is what limits the search.
+        boolean deadlineBound = false;
+        if (handle != null && handle.hasDeadline()) {
+            double remaining = handle.remainingSeconds();
+            if (parameters.getMaxTimeInSeconds() > remaining) {
+                parameters.setMaxTimeInSeconds(remaining);
+                deadlineBound = true;
+            }
+        }
+        CpModelProto proto = selection.model.model();
+        CpSolverResponse response;
+        if (handle != null && handle.isCancelled()) {
+            // Not even handed to the backend: a worker process could not be stopped once it had started.
+            response = CpSolverResponse.newBuilder().setStatus(CpSolverStatus.UNKNOWN).build();
+        } else if (listener == null && handle == null) {
+            response = backend.solve(selection.model, parameters.build());
+        } else {
+            ProgressCallback callback = listener == null ? null : new ProgressCallback(selection, listener,
+                    proto.getVariablesCount(), proto.getConstraintsCount());
+            response = backend.solve(selection.model, parameters.build(), callback, handle);
+            if (callback != null && callback.failure != null) {
+                throw callback.failure;
+            }
+        }
+
+        PlanResult result = toPlan(selection, response);
+        result.interrupted = handle != null && (handle.isCancelled() || deadlineBound)
+                && (result.status == CpSolverStatus.FEASIBLE || result.status == CpSolverStatus.UNKNOWN);
+        metrics.record(SolverMetrics.Phase.SOLVE, System.nanoTime() - start);
+        result.statistics = SolveStatistics.from(response, proto);
+        metrics.recordModel(proto.getVariablesCount(), proto.getConstraintsCount(), proto.getObjective().getVarsCount());
+        metrics.recordSolver(result.statistics);
+        return result;
+    }
+
+    /**
+     * Solves a model that is not a {@link SelectionModel}, such as a multi-day horizon, with this engine's backend
+     * and the config's solver parameters, recording it in the metrics like any other solve.
+     */
+    CpSolverResponse solveRaw(CpModel model, Main.Config config, int decisionVariables) {
+        long start = System.nanoTime();
+        CpSolverResponse response = backend.solve(model, parametersFor(config, decisionVariables, 0).build());
+        metrics.record(SolverMetrics.Phase.SOLVE, System.nanoTime() - start);
+        CpModelProto proto = model.model();
+        metrics.recordModel(proto.getVariablesCount(), proto.getConstraintsCount(), proto.getObjective().getVarsCount());
+        metrics.recordSolver(SolveStatistics.from(response, proto));
+        return response;
+    }
+
+    /**
+     * @return the CP-SAT parameters for the config's 'solver' block, with the worker count capped at {@code maxWorkers}
+     *         (0 means no cap).
+     */
+    private static SatParameters.Builder parametersFor(Main.Config config, int decisionVariables, int maxWorkers) {
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+        applyParameters(parameters, config.solver, decisionVariables);
+        if (maxWorkers > 0 && (parameters.getNumWorkers() == 0 || parameters.getNumWorkers() > maxWorkers)) {
+            parameters.setNumWorkers(maxWorkers);
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads the assignment out of a solver response; variables are looked up by their proto index,
+     * so this works for responses produced in another process too.
+     */
+    static PlanResult toPlan(SelectionModel selection, CpSolverResponse response) {
+        PlanResult result = new PlanResult();
+        result.solvePath = PlanResult.SolvePath.CP_SAT;
+        result.status = response.getStatus();
+        result.fleet = selection.fleet;
+        if (result.hasSolution()) {
+            result.objectiveValue = response.getObjectiveValue();
+            IntVar[] isAssigned = selection.isAssigned;
+            for (int i = 0; i < isAssigned.length; i++) {
+                if (isAssigned[i] != null && response.getSolution(isAssigned[i].getIndex()) == 1) {
+                    result.assigned.set(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Turns every solution CP-SAT reports into an intermediate plan for a {@link PlanListener}.
+     */
+    private static final class ProgressCallback extends CpSolverSolutionCallback {
+        private final SelectionModel selection;
+        private final PlanListener listener;
+        private final long variables;
+        private final long constraints;
+        private volatile RuntimeException failure;
+
+        ProgressCallback(SelectionModel selection, PlanListener listener, long variables, long constraints) {
+            this.selection = selection;
+            this.listener = listener;
+            this.variables = variables;
+            this.constraints = constraints;
+        }
+
+        @Override
+        public void onSolutionCallback() {
+            if (failure != null) {
+                return;
+            }
+            PlanResult plan = new PlanResult();
+            plan.solvePath = PlanResult.SolvePath.CP_SAT;
+            plan.status = CpSolverStatus.FEASIBLE;
+            plan.fleet = selection.fleet;
+            plan.objectiveValue = objectiveValue();
+            IntVar[] isAssigned = selection.isAssigned;
+            for (int i = 0; i < isAssigned.length; i++) {
+                if (isAssigned[i] != null && solutionIntegerValue(isAssigned[i].getIndex()) == 1) {
+                    plan.assigned.set(i);
+                }
+            }
+            plan.statistics = SolveStatistics.progress(this, variables, constraints);
+            try {
+                listener.onPlan(plan);
+            } catch (RuntimeException e) {
+                // Exceptions must not unwind through the native search; keep it and end the search instead.
+                failure = e;
+                stopSearch();
+            }
+        }
+    }
+
+    // --- Lexicographic mode ---
+
+    /**
+     * Solves the goals one after another on the same model: maximise the branding total, then, with branding held
+     * at least at that value, maximise the mileage deviation of the trains sent to cleaning (which minimises the
+     * deviation left in service), then the stabling total. Each stage starts from the previous stage's plan as
+     * hints, which is already feasible for the new constraint, so later stages mostly just improve on it.
+     *
+     * <p>The returned plan reports the weighted objective of the final assignment so plans from both modes
+     * compare directly, and is only {@code OPTIMAL} if every stage was. Its statistics cover all stages and carry
+     * the same weighted objective. The solver limits apply to each stage,
+     * while a handle's deadline covers all of them. If a later stage is stopped before it finds a plan, the
+     * previous stage's plan is returned.
+     */
+    private PlanResult solveLexicographic(SelectionModel selection, ObjectiveCoefficients coefficients,
+                                          int maxWorkers, SolveHandle handle) {
+        FleetTable fleet = selection.fleet;
+        IntVar[] isAssigned = selection.isAssigned;
+        long[] deviation = fleet.deviation();
+        LinearExprBuilder branding = LinearExpr.newBuilder();
+        LinearExprBuilder balance = LinearExpr.newBuilder();
+        LinearExprBuilder stabling = LinearExpr.newBuilder();
+        BitSet requiresCleaning = fleet.requiresCleaning;
+        for (int i = requiresCleaning.nextSetBit(0); i >= 0; i = requiresCleaning.nextSetBit(i + 1)) {
+            branding.addTerm(isAssigned[i], fleet.brandingScore[i]);
+            balance.addTerm(isAssigned[i], deviation[i]);
+            stabling.addTerm(isAssigned[i], fleet.stablingScore[i]);
+        }
+        LinearExpr[] stages = {branding.build(), balance.build(), stabling.build()};
+
+        CpModel model = selection.model;
+        PlanResult result = null;
+        boolean proven = true;
+        List<SolveStatistics> runs = new ArrayList<>(stages.length);
+        for (int stage = 0; stage < stages.length; stage++) {
+            model.clearObjective();
+            model.maximize(stages[stage]);
+            PlanResult stageResult = solveModel(selection, maxWorkers, null, handle);
+            runs.add(stageResult.statistics);
+            if (!stageResult.hasSolution()) {
+                if (result == null) {
+                    return stageResult;
+                }
+                proven = false;
+                result.interrupted |= stageResult.interrupted;
+                break;
+            }
+            result = stageResult;
+            proven &= result.status == CpSolverStatus.OPTIMAL;
+            if (stage + 1 < stages.length) {
+                model.addGreaterOrEqual(stages[stage], Math.round(result.objectiveValue));
+                model.clearHints();
+                for (int i = requiresCleaning.nextSetBit(0); i >= 0; i = requiresCleaning.nextSetBit(i + 1)) {
+                    model.addHint(isAssigned[i], result.assigned.get(i) ? 1 : 0);
+                }
+            }
+        }
+
+        long objective = coefficients.constant();
+        for (int i = result.assigned.nextSetBit(0); i >= 0; i = result.assigned.nextSetBit(i + 1)) {
+            objective += coefficients.coefficient[i];
+        }
+        result.objectiveValue = objective;
+        result.statistics = SolveStatistics.ofRuns(runs, objective);
+        if (!proven) {
+            result.status = CpSolverStatus.FEASIBLE;
+        }
+        return result;
+    }
+
+    // --- Solver parameters ---
+
+    /**
+     * Models with fewer decision variables than this are solved by a single worker when the
+     * worker count is sized automatically; the portfolio's thread pool costs more than it saves there.
+     */
+    static final int AUTO_WORKERS_SMALL_MODEL = 1000;
+
+    /**
+     * Maps the 'solver' block of the config onto CP-SAT parameters. A null block leaves the defaults untouched.
+     *
+     * @param decisionVariables the number of decision variables in the model, used by the auto-sizing mode.
+     */
+    static void applyParameters(SatParameters.Builder parameters, Main.SolverParameters config, int decisionVariables) {
+        if (config == null) {
+            return;
+        }
+        if (config.autoWorkers) {
+            parameters.setNumWorkers(autoWorkerCount(decisionVariables, config.numWorkers));
+        } else if (config.numWorkers > 0) {
+            parameters.setNumWorkers(config.numWorkers);
+        }
+        if (config.maxTimeInSeconds > 0) {
+            parameters.setMaxTimeInSeconds(config.maxTimeInSeconds);
+        }
+        if (config.relativeGapLimit > 0) {
+            parameters.setRelativeGapLimit(config.relativeGapLimit);
+        }
+    }
+
+    /**
+     * @param cap an upper bound on the worker count; 0 means "all available cores".
+     * @return one worker for small models, otherwise every available core (up to the cap).
+     */
+    static int autoWorkerCount(int decisionVariables, int cap) {
+        if (decisionVariables < AUTO_WORKERS_SMALL_MODEL) {
+            return 1;
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        return cap > 0 ? Math.min(cap, cores) : cores;
+    }
+}
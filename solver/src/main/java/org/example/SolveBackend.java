@@ -0,0 +1,61 @@
+package org.example;
+
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverSolutionCallback;
+import com.google.ortools.sat.SatParameters;
+import com.google.ortools.sat.SolveWrapper;
+
+/**
+ * Runs CP-SAT on a built model. The selection engine goes through this seam so the native search can
+ * happen either in this JVM or in a separate worker process.
+ */
+public interface SolveBackend {
+
+    CpSolverResponse solve(CpModel model, SatParameters parameters);
+
+    /**
+     * Like {@link #solve(CpModel, SatParameters)}, invoking {@code callback} for every improving solution as the
+     * search finds it and letting {@code handle} stop the search; either may be null. Backends that cannot observe
+     * or interrupt the search, like {@link WorkerPool}, never invoke the callback and at most use the handle to
+     * bound their own waiting.
+     */
+    default CpSolverResponse solve(CpModel model, SatParameters parameters, CpSolverSolutionCallback callback,
+                                   SolveHandle handle) {
+        return solve(model, parameters);
+    }
+
+    /**
+     * Solves in the calling thread of this JVM.
+     */
+    SolveBackend IN_PROCESS = new SolveBackend() {
+        @Override
+        public CpSolverResponse solve(CpModel model, SatParameters parameters) {
+            return solve(model, parameters, null, null);
+        }
+
+        @Override
+        public CpSolverResponse solve(CpModel model, SatParameters parameters, CpSolverSolutionCallback callback,
+                                      SolveHandle handle) {
+            // The wrapper rather than CpSolver, so a handle can stop it even before the search has started.
+            SolveWrapper wrapper = new SolveWrapper();
+            wrapper.setParameters(parameters);
+            if (callback != null) {
+                wrapper.addSolutionCallback(callback);
+            }
+            if (handle != null) {
+                handle.attach(wrapper);
+            }
+            try {
+                return wrapper.solve(model.model());
+            } finally {
+                if (handle != null) {
+                    handle.detach(wrapper);
+                }
+                if (callback != null) {
+                    wrapper.clearSolutionCallback(callback);
+                }
+            }
+        }
+    };
+}
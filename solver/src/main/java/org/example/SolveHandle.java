@@ -0,0 +1,91 @@
+package org.example;
+
+import com.google.ortools.sat.SolveWrapper;
+
+import java.time.Duration;
+
+/**
+ * Lets a caller stop a solve that is already running, and bounds it by a wall-clock deadline.
+ *
+ * <p>{@link #cancel()} asks the native search to stop; CP-SAT then returns the best plan found so far (status
+ * {@code FEASIBLE}), or none if it had not found one yet. Cancelling before the search starts makes it stop as
+ * soon as it does. The deadline is applied as the search's time limit, so it covers the remaining time rather
+ * than a fresh budget per stage. A handle may be cancelled from any thread, and can be shared by the stages of
+ * one solve but not by two concurrent solves.
+ *
+ * <p>Only searches run in this JVM can be stopped mid-way; a search in a {@link WorkerPool} process honours the
+ * deadline but runs until it hits it. Waiting for a free worker process ends at the deadline or on cancellation.
+ */
+public class SolveHandle {
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private SolveWrapper running;
+
+    /**
+     * A handle without a deadline; the solve only ends early if {@link #cancel()} is called.
+     */
+    public SolveHandle() {
+        this.deadlineNanos = Long.MAX_VALUE;
+    }
+
+    /**
+     * A handle whose solve stops once {@code timeout} has elapsed from now.
+     */
+    public SolveHandle(Duration timeout) {
+        this(System.nanoTime() + timeout.toNanos());
+    }
+
+    private SolveHandle(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @return a new, uncancelled handle with this handle's deadline, for another solve that must end by then.
+     */
+    SolveHandle sameDeadline() {
+        return new SolveHandle(deadlineNanos);
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (running != null) {
+            running.stopSearch();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean hasDeadline() {
+        return deadlineNanos != Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return hasDeadline() && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return the time left until the deadline, never negative; only meaningful if {@link #hasDeadline()}.
+     */
+    double remainingSeconds() {
+        return Math.max(0, deadlineNanos - System.nanoTime()) / 1e9;
+    }
+
+    /**
+     * Registers the search about to run; it is stopped straight away if the handle was already cancelled.
+     */
+    synchronized void attach(SolveWrapper wrapper) {
+        running = wrapper;
+        if (cancelled) {
+            wrapper.stopSearch();
+        }
+    }
+
+    synchronized void detach(SolveWrapper wrapper) {
+        if (running == wrapper) {
+            running = null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how many solves run at once, so that concurrent requests share the machine instead of oversubscribing it.
+ *
+ * <p>Each slot stands for one core. A single solve holds one slot; a solve that may use several CP-SAT workers
+ * can hold one per worker. Waiting gives up at the deadline of the solve's {@link SolveHandle}. Slots are handed
+ * out first come, first served, so a solve waiting for several slots is not starved by single-slot solves.
+ */
+public class SolveSlots {
+
+    private final int capacity;
+    private final Semaphore permits;
+
+    public SolveSlots(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("At least one solve slot is needed");
+        }
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity, true);
+    }
+
+    /**
+     * One slot per available core.
+     */
+    public SolveSlots() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public boolean acquire(SolveHandle handle) {
+        return acquire(handle, 1);
+    }
+
+    /**
+     * Waits for {@code slots} slots (at most all of them), giving up at the handle's deadline.
+     *
+     * @param handle the solve's handle; null or one without a deadline waits as long as it takes.
+     * @return false if the deadline passed first, in which case no slot is held.
+     */
+    public boolean acquire(SolveHandle handle, int slots) {
+        int wanted = Math.min(slots, capacity);
+        try {
+            if (handle == null || !handle.hasDeadline()) {
+                permits.acquire(wanted);
+                return true;
+            }
+            return permits.tryAcquire(wanted, (long) (handle.remainingSeconds() * 1e9), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free solver", e);
+        }
+    }
+
+    public void release() {
+        release(1);
+    }
+
+    /**
+     * Returns slots taken by {@link #acquire(SolveHandle, int)} with the same count.
+     */
+    public void release(int slots) {
+        permits.release(Math.min(slots, capacity));
+    }
+}
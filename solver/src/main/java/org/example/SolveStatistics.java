@@ -0,0 +1,125 @@
+package org.example;
+
+import com.google.ortools.sat.CpModelProto;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.SolutionCallback;
+
+import java.util.List;
+
+/**
+ * Solver-side telemetry for one plan, taken from the {@link CpSolverResponse}. Comparing
+ * {@link #wallTimeSeconds} with the engine's SOLVE phase shows whether time goes into the native search
+ * or into our own Java code; the search counters and the gap are what parameter tuning works from.
+ */
+public class SolveStatistics {
+
+    public double wallTimeSeconds;
+    public double userTimeSeconds;
+    public double deterministicTime;
+    public long numBranches;
+    public long numConflicts;
+    public long numRestarts;
+    public long numBinaryPropagations;
+    public long numIntegerPropagations;
+    public long numLpIterations;
+    public double objectiveValue;
+    public double bestObjectiveBound;
+    public double relativeGap;     // |bound - objective| / max(1, |objective|), as CP-SAT defines it.
+    public double gapIntegral;
+    public long modelVariables;    // Variables in the model we built.
+    public long modelConstraints;  // Constraints in the model we built.
+    public long presolvedVariables; // Booleans plus integers left in the model after presolve.
+    public long presolveReductions; // Variables presolve removed: modelVariables - presolvedVariables.
+
+    public static SolveStatistics from(CpSolverResponse response, CpModelProto model) {
+        SolveStatistics stats = new SolveStatistics();
+        stats.wallTimeSeconds = response.getWallTime();
+        stats.userTimeSeconds = response.getUserTime();
+        stats.deterministicTime = response.getDeterministicTime();
+        stats.numBranches = response.getNumBranches();
+        stats.numConflicts = response.getNumConflicts();
+        stats.numRestarts = response.getNumRestarts();
+        stats.numBinaryPropagations = response.getNumBinaryPropagations();
+        stats.numIntegerPropagations = response.getNumIntegerPropagations();
+        stats.numLpIterations = response.getNumLpIterations();
+        stats.objectiveValue = response.getObjectiveValue();
+        stats.bestObjectiveBound = response.getBestObjectiveBound();
+        stats.relativeGap = relativeGap(stats.objectiveValue, stats.bestObjectiveBound);
+        stats.gapIntegral = response.getGapIntegral();
+        stats.modelVariables = model.getVariablesCount();
+        stats.modelConstraints = model.getConstraintsCount();
+        stats.presolvedVariables = response.getNumBooleans() + response.getNumIntegers();
+        stats.presolveReductions = Math.max(0, stats.modelVariables - stats.presolvedVariables);
+        return stats;
+    }
+
+    /**
+     * Statistics for an intermediate plan reported during the search: only the counters the solution callback
+     * exposes are filled in, together with the model size.
+     */
+    public static SolveStatistics progress(SolutionCallback solution, long modelVariables, long modelConstraints) {
+        SolveStatistics stats = new SolveStatistics();
+        stats.wallTimeSeconds = solution.wallTime();
+        stats.userTimeSeconds = solution.userTime();
+        stats.numBranches = solution.numBranches();
+        stats.numConflicts = solution.numConflicts();
+        stats.numBinaryPropagations = solution.numBinaryPropagations();
+        stats.numIntegerPropagations = solution.numIntegerPropagations();
+        stats.objectiveValue = solution.objectiveValue();
+        stats.bestObjectiveBound = solution.bestObjectiveBound();
+        stats.relativeGap = relativeGap(stats.objectiveValue, stats.bestObjectiveBound);
+        stats.modelVariables = modelVariables;
+        stats.modelConstraints = modelConstraints;
+        return stats;
+    }
+
+    /**
+     * Statistics for a plan answered by the closed-form selection: no search happens and the
+     * bound always equals the objective.
+     */
+    public static SolveStatistics closedForm(double objectiveValue, long wallNanos, long variables) {
+        SolveStatistics stats = new SolveStatistics();
+        stats.wallTimeSeconds = wallNanos / 1e9;
+        stats.userTimeSeconds = stats.wallTimeSeconds;
+        stats.objectiveValue = objectiveValue;
+        stats.bestObjectiveBound = objectiveValue;
+        stats.modelVariables = variables;
+        stats.modelConstraints = 1;
+        stats.presolvedVariables = variables;
+        return stats;
+    }
+
+    /**
+     * Statistics for a plan found by several CP-SAT runs on one model, such as the stages of the lexicographic
+     * mode. Times and search counters are summed, the model size is that of the last run, and the gap is the
+     * largest any run left open. The objective and its bound are set to {@code objectiveValue}, the plan's own
+     * objective, which none of the runs optimised directly and so has no bound of its own.
+     */
+    static SolveStatistics ofRuns(List<SolveStatistics> runs, double objectiveValue) {
+        SolveStatistics stats = new SolveStatistics();
+        for (SolveStatistics run : runs) {
+            stats.wallTimeSeconds += run.wallTimeSeconds;
+            stats.userTimeSeconds += run.userTimeSeconds;
+            stats.deterministicTime += run.deterministicTime;
+            stats.numBranches += run.numBranches;
+            stats.numConflicts += run.numConflicts;
+            stats.numRestarts += run.numRestarts;
+            stats.numBinaryPropagations += run.numBinaryPropagations;
+            stats.numIntegerPropagations += run.numIntegerPropagations;
+            stats.numLpIterations += run.numLpIterations;
+            stats.gapIntegral += run.gapIntegral;
+            stats.relativeGap = Math.max(stats.relativeGap, run.relativeGap);
+            stats.modelVariables = run.modelVariables;
+            stats.modelConstraints = run.modelConstraints;
+            stats.presolvedVariables = run.presolvedVariables;
+            stats.presolveReductions = run.presolveReductions;
+        }
+        stats.objectiveValue = objectiveValue;
+        stats.bestObjectiveBound = objectiveValue;
+        return stats;
+    }
+
+    static double relativeGap(double objective, double bound) {
+        return Math.abs(bound - objective) / Math.max(1.0, Math.abs(objective));
+    }
+}
@@ -0,0 +1,131 @@
+package org.example;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-phase latency histograms and model-size counters for every plan.
+ *
+ * <p>The selection engine records the model-build and solve phases; callers record the phases they own
+ * (native library load, parsing, reporting). The native solver's own telemetry is aggregated separately
+ * through {@link #recordSolver}, and a {@link WorkerPool}'s crashes and failed restarts through
+ * {@link #recordWorkerCrash} and {@link #recordWorkerStartFailure}. {@link #snapshot()} returns a JSON-ready view, which the
+ * service exposes on {@code GET /metrics}.
+ */
+public class SolverMetrics {
+
+    public enum Phase {
+        NATIVE_LOAD,
+        PARSE,
+        MODEL_BUILD,
+        SOLVE,
+        REPORT
+    }
+
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder variables = new LongAdder();
+    private final LongAdder constraints = new LongAdder();
+    private final LongAdder objectiveTerms = new LongAdder();
+
+    // Solver-side telemetry, fed from SolveStatistics.
+    private final LatencyHistogram solverWallTime = new LatencyHistogram();
+    private final LatencyHistogram solverDeterministicTime = new LatencyHistogram();
+    private final LongAdder branches = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder presolveReductions = new LongAdder();
+    private final LongAdder suboptimalSolves = new LongAdder();
+
+    // Solver worker processes, fed by a WorkerPool.
+    private final LongAdder workerCrashes = new LongAdder();
+    private final LongAdder workerStartFailures = new LongAdder();
+    private volatile String lastWorkerStartFailure;
+
+    public SolverMetrics() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public void record(Phase phase, long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    /**
+     * Records the size of one solved model.
+     */
+    public void recordModel(long variableCount, long constraintCount, long objectiveTermCount) {
+        solves.increment();
+        variables.add(variableCount);
+        constraints.add(constraintCount);
+        objectiveTerms.add(objectiveTermCount);
+    }
+
+    /**
+     * Records what the native solver reported for one solve.
+     */
+    public void recordSolver(SolveStatistics stats) {
+        solverWallTime.record((long) (stats.wallTimeSeconds * 1e9));
+        // Deterministic time is unitless; it is stored scaled like seconds so the histogram stays comparable.
+        solverDeterministicTime.record((long) (stats.deterministicTime * 1e9));
+        branches.add(stats.numBranches);
+        conflicts.add(stats.numConflicts);
+        presolveReductions.add(stats.presolveReductions);
+        if (stats.relativeGap > 0) {
+            suboptimalSolves.increment();
+        }
+    }
+
+    /**
+     * Records a solver worker process that died or broke the protocol while solving.
+     */
+    public void recordWorkerCrash() {
+        workerCrashes.increment();
+    }
+
+    /**
+     * Records a failed attempt to start a solver worker process.
+     */
+    public void recordWorkerStartFailure(Exception failure) {
+        workerStartFailures.increment();
+        lastWorkerStartFailure = String.valueOf(failure.getMessage());
+    }
+
+    public LatencyHistogram histogram(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> phaseSnapshots = new LinkedHashMap<>();
+        for (Map.Entry<Phase, LatencyHistogram> entry : phases.entrySet()) {
+            phaseSnapshots.put(entry.getKey().name(), entry.getValue().snapshot());
+        }
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("solves", solves.sum());
+        counters.put("variables", variables.sum());
+        counters.put("constraints", constraints.sum());
+        counters.put("objectiveTerms", objectiveTerms.sum());
+
+        Map<String, Object> solver = new LinkedHashMap<>();
+        solver.put("wallTime", solverWallTime.snapshot());
+        solver.put("deterministicTime", solverDeterministicTime.snapshot());
+        solver.put("branches", branches.sum());
+        solver.put("conflicts", conflicts.sum());
+        solver.put("presolveReductions", presolveReductions.sum());
+        solver.put("solvesWithOpenGap", suboptimalSolves.sum());
+
+        Map<String, Object> workers = new LinkedHashMap<>();
+        workers.put("crashes", workerCrashes.sum());
+        workers.put("startFailures", workerStartFailures.sum());
+        workers.put("lastStartFailure", lastWorkerStartFailure);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("phases", phaseSnapshots);
+        snapshot.put("counters", counters);
+        snapshot.put("solver", solver);
+        snapshot.put("workers", workers);
+        return snapshot;
+    }
+}
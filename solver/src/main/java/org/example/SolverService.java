@@ -0,0 +1,427 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.Loader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-lived HTTP/JSON front end for the selection engine.
+ *
+ * <p>The OR-Tools native libraries and the Jackson {@link ObjectMapper} are loaded once when the
+ * service starts and stay warm for its lifetime, so each plan only pays for parsing and solving.
+ *
+ * <ul>
+ *   <li>{@code POST /solve} – body is an {@link Main.InputData} document, response is a {@link PlanResult}.
+ *       Results are cached by canonical input ({@code -DcacheSize}, {@code -DcacheTtlSeconds}).</li>
+ *   <li>{@code POST /solve/stream} – like {@code /solve}, but answers with server-sent events: one {@code plan} event
+ *       per improving assignment found during the CP-SAT search, then a {@code result} event with the final plan
+ *       (or an {@code error} event). Not cached.</li>
+ *   <li>{@code POST /solve/batch} – body is a JSON array of {@link Main.InputData}, solved in parallel;
+ *       the response is the array of {@link PlanResult}s in the same order. Every instance takes its solve slots
+ *       and honours the request's deadline; one that could not start in time comes back {@code interrupted}
+ *       without an assignment.</li>
+ *   <li>{@code PUT /plan} – loads an {@link Main.InputData} document as the live plan; {@code GET /plan} returns it.</li>
+ *   <li>{@code POST /plan/events} – body is a JSON array of {@link TrainEvent}s applied incrementally to the live plan.</li>
+ *   <li>{@code GET /metrics} – per-phase latency percentiles and model-size counters as JSON.</li>
+ *   <li>{@code POST /solve/cancel/<id>} – stops the running {@code /solve} or {@code /solve/stream} request that
+ *       was sent with the header {@code X-Request-Id: <id>}; it answers with the best plan found so far.</li>
+ *   <li>{@code GET /health} – liveness probe.</li>
+ * </ul>
+ *
+ * <p>Solves are bounded by a deadline: the {@code X-Deadline-Ms} request header, or {@code -DsolveDeadlineMs} when
+ * the header is absent (0, the default, means none). Solves share one {@link SolveSlots} per core; a request that
+ * waits for a free slot, or for an identical request's solve, past its deadline fails with 503 without solving.
+ * A search that reaches the deadline
+ * returns its best plan so far with {@code interrupted} set; if it had found none the request also fails with 503.
+ * Requests are dispatched on an unbounded pool, so cheap endpoints such as cancellation never queue behind solves.
+ * Any other path answers 404, and a known path with the wrong method 405.
+ */
+public class SolverService {
+
+    private final SelectionEngine engine;
+    private final BatchSolver batchSolver;
+    private final PlanCache cache;
+    private volatile IncrementalPlanner planner;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final FleetStreamReader reader = new FleetStreamReader(mapper);
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SolveSlots solveSlots = new SolveSlots();
+    private final long defaultDeadlineMillis = Long.getLong("solveDeadlineMs", 0);
+    // Handles of the solves started with an X-Request-Id header, so they can be cancelled by id.
+    private final ConcurrentHashMap<String, SolveHandle> running = new ConcurrentHashMap<>();
+
+    public SolverService(SelectionEngine engine, int port) throws IOException {
+        // Loading is idempotent, but doing it here keeps the first request from paying for it.
+        long start = System.nanoTime();
+        Loader.loadNativeLibraries();
+        engine.metrics().record(SolverMetrics.Phase.NATIVE_LOAD, System.nanoTime() - start);
+        this.engine = engine;
+        this.batchSolver = new BatchSolver(engine, 0, solveSlots);
+        this.cache = new PlanCache(engine, Integer.getInteger("cacheSize", 1024),
+                Duration.ofSeconds(Integer.getInteger("cacheTtlSeconds", 300)), solveSlots);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/solve/stream", this::handleStream);
+        server.createContext("/solve/batch", this::handleBatch);
+        server.createContext("/solve/cancel/", this::handleCancel);
+        server.createContext("/plan", this::handlePlan);
+        server.createContext("/plan/events", this::handleEvents);
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext("/health", this::handleHealth);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        batchSolver.close();
+    }
+
+    /**
+     * @return the port the service is bound to; useful when it was started on port 0.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        try {
+            if (notFound(exchange, "/solve")) {
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Use POST with an InputData JSON body"));
+                return;
+            }
+            // The body is streamed straight into the columnar fleet; it is never held as a string.
+            // Identical snapshots are answered from the cache, and concurrent ones share a single solve.
+            PlanResult result;
+            SolveHandle handle;
+            try {
+                handle = handleFor(exchange);
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            String requestId = exchange.getRequestHeaders().getFirst("X-Request-Id");
+            if (requestId != null && running.putIfAbsent(requestId, handle) != null) {
+                respond(exchange, 409, error("A solve with request id '" + requestId + "' is already running"));
+                return;
+            }
+            try (InputStream body = exchange.getRequestBody()) {
+                FleetTable fleet = engine.parse(body, reader);
+                // Only a request that ends up solving takes a slot; one waiting on an identical solve holds none.
+                result = cache.solve(fleet, handle);
+            } catch (JsonProcessingException e) {
+                respond(exchange, 400, error("Malformed input: " + e.getOriginalMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            } finally {
+                if (requestId != null) {
+                    running.remove(requestId, handle);
+                }
+            }
+            if (result.interrupted && !result.hasSolution()) {
+                respond(exchange, 503, error("Stopped before a plan was found"));
+                return;
+            }
+            long reportStart = System.nanoTime();
+            String json = mapper.writeValueAsString(result);
+            engine.metrics().record(SolverMetrics.Phase.REPORT, System.nanoTime() - reportStart);
+            respond(exchange, 200, json);
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        try {
+            if (notFound(exchange, "/solve/stream")) {
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Use POST with an InputData JSON body"));
+                return;
+            }
+            FleetTable fleet;
+            SolveHandle handle;
+            try (InputStream body = exchange.getRequestBody()) {
+                handle = handleFor(exchange);
+                fleet = engine.parse(body, reader);
+            } catch (JsonProcessingException e) {
+                respond(exchange, 400, error("Malformed input: " + e.getOriginalMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            if (fleet.config() == null) {
+                respond(exchange, 400, error("Input must contain 'config'"));
+                return;
+            }
+            String requestId = exchange.getRequestHeaders().getFirst("X-Request-Id");
+            if (requestId != null && running.putIfAbsent(requestId, handle) != null) {
+                respond(exchange, 409, error("A solve with request id '" + requestId + "' is already running"));
+                return;
+            }
+            if (!solveSlots.acquire(handle)) {
+                if (requestId != null) {
+                    running.remove(requestId, handle);
+                }
+                respond(exchange, 503, error("Deadline passed while waiting for a free solver"));
+                return;
+            }
+            try {
+                exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    String event = "result";
+                    String json;
+                    try {
+                        // A client that disconnects makes the next write fail, which stops the search.
+                        PlanResult result = engine.solve(fleet, plan -> {
+                            try {
+                                sendEvent(out, "plan", mapper.writeValueAsString(plan));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, handle);
+                        long reportStart = System.nanoTime();
+                        json = mapper.writeValueAsString(result);
+                        engine.metrics().record(SolverMetrics.Phase.REPORT, System.nanoTime() - reportStart);
+                    } catch (UncheckedIOException e) {
+                        return;
+                    } catch (RuntimeException e) {
+                        event = "error";
+                        json = error(String.valueOf(e.getMessage()));
+                    }
+                    sendEvent(out, event, json);
+                }
+            } finally {
+                solveSlots.release();
+                if (requestId != null) {
+                    running.remove(requestId, handle);
+                }
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void handleCancel(HttpExchange exchange) throws IOException {
+        String requestId = exchange.getRequestURI().getPath().substring("/solve/cancel/".length());
+        if (requestId.isEmpty() || requestId.contains("/")) {
+            respond(exchange, 404, error("No such endpoint: " + exchange.getRequestURI().getPath()));
+            return;
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, error("Use POST /solve/cancel/<request id>"));
+            return;
+        }
+        SolveHandle handle = running.get(requestId);
+        if (handle == null) {
+            respond(exchange, 404, error("No running solve with request id '" + requestId + "'"));
+            return;
+        }
+        handle.cancel();
+        respond(exchange, 202, mapper.writeValueAsString(Collections.singletonMap("cancelled", requestId)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the X-Deadline-Ms header is not a number.
+     */
+    private SolveHandle handleFor(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("X-Deadline-Ms");
+        long deadlineMillis;
+        try {
+            deadlineMillis = header == null ? defaultDeadlineMillis : Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("X-Deadline-Ms must be a number of milliseconds");
+        }
+        return deadlineMillis > 0 ? new SolveHandle(Duration.ofMillis(deadlineMillis)) : new SolveHandle();
+    }
+
+    private static void sendEvent(OutputStream out, String event, String json) throws IOException {
+        out.write(("event: " + event + "\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void handlePlan(HttpExchange exchange) throws IOException {
+        try {
+            if (notFound(exchange, "/plan")) {
+                return;
+            }
+            if ("PUT".equals(exchange.getRequestMethod())) {
+                try (InputStream body = exchange.getRequestBody()) {
+                    planner = new IncrementalPlanner(engine, engine.parse(body, reader));
+                } catch (JsonProcessingException e) {
+                    respond(exchange, 400, error("Malformed input: " + e.getOriginalMessage()));
+                    return;
+                } catch (IllegalArgumentException e) {
+                    respond(exchange, 400, error(e.getMessage()));
+                    return;
+                }
+            } else if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Use PUT to load a plan or GET to read it"));
+                return;
+            }
+            IncrementalPlanner current = planner;
+            if (current == null) {
+                respond(exchange, 404, error("No plan loaded; PUT an InputData document to /plan first"));
+                return;
+            }
+            respond(exchange, 200, mapper.writeValueAsString(current.plan()));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        try {
+            if (notFound(exchange, "/plan/events")) {
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Use POST with a JSON array of train events"));
+                return;
+            }
+            IncrementalPlanner current = planner;
+            if (current == null) {
+                respond(exchange, 404, error("No plan loaded; PUT an InputData document to /plan first"));
+                return;
+            }
+            List<TrainEvent> events;
+            try (InputStream body = exchange.getRequestBody()) {
+                events = mapper.readValue(body, new TypeReference<List<TrainEvent>>() { });
+            } catch (JsonProcessingException e) {
+                respond(exchange, 400, error("Malformed input: " + e.getOriginalMessage()));
+                return;
+            }
+            boolean changed;
+            try {
+                changed = current.applyAll(events);
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("selectionChanged", changed);
+            response.put("plan", current.plan());
+            respond(exchange, 200, mapper.writeValueAsString(response));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (notFound(exchange, "/metrics")) {
+            return;
+        }
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, error("Use GET"));
+            return;
+        }
+        Map<String, Object> snapshot = engine.metrics().snapshot();
+        snapshot.put("cache", cache.stats());
+        respond(exchange, 200, mapper.writeValueAsString(snapshot));
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        if (notFound(exchange, "/health")) {
+            return;
+        }
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, error("Use GET"));
+            return;
+        }
+        respond(exchange, 200, "{\"status\":\"UP\"}");
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            if (notFound(exchange, "/solve/batch")) {
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Use POST with a JSON array of InputData"));
+                return;
+            }
+            List<Main.InputData> batch;
+            SolveHandle handle;
+            try (InputStream body = exchange.getRequestBody()) {
+                handle = handleFor(exchange);
+                batch = mapper.readValue(body, new TypeReference<List<Main.InputData>>() { });
+            } catch (JsonProcessingException e) {
+                respond(exchange, 400, error("Malformed input: " + e.getOriginalMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            List<PlanResult> results;
+            try {
+                results = batchSolver.solveAll(batch, handle);
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            respond(exchange, 200, mapper.writeValueAsString(results));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * A context receives every path it is a prefix of, so {@code /plan} would also serve {@code /planning}; this
+     * answers 404 unless the request is for {@code path} itself.
+     *
+     * @return true if the request was answered.
+     */
+    private boolean notFound(HttpExchange exchange, String path) throws IOException {
+        if (exchange.getRequestURI().getPath().equals(path)) {
+            return false;
+        }
+        respond(exchange, 404, error("No such endpoint: " + exchange.getRequestURI().getPath()));
+        return true;
+    }
+
+    private String error(String message) throws JsonProcessingException {
+        return mapper.writeValueAsString(Collections.singletonMap("error", message));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
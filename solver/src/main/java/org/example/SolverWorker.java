@@ -0,0 +1,75 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpModelProto;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.SatParameters;
+import com.google.ortools.sat.SolveWrapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Entry point of a child solver process started by {@link WorkerPool}.
+ *
+ * <p>The protocol over stdin/stdout is a sequence of length-prefixed protobuf frames: the parent sends a
+ * serialized {@link CpModelProto} followed by {@link SatParameters}, the worker answers with a serialized
+ * {@link CpSolverResponse}. Once the native libraries are loaded the worker writes a single ready byte,
+ * which is what makes pooled workers "pre-warmed". A native crash only kills this process; the parent
+ * notices the broken pipe and retries elsewhere.
+ */
+public final class SolverWorker {
+
+    static final int READY = 0x52; // 'R'
+
+    private SolverWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        // stdout carries the protocol; anything else printed from Java goes to stderr.
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+
+        Loader.loadNativeLibraries();
+        out.writeByte(READY);
+        out.flush();
+
+        while (true) {
+            byte[] model;
+            try {
+                model = readFrame(in);
+            } catch (EOFException e) {
+                return; // The parent closed the pipe: shut down.
+            }
+            SatParameters parameters = SatParameters.parseFrom(readFrame(in)).toBuilder()
+                    .setLogToStdout(false)
+                    .build();
+
+            SolveWrapper wrapper = new SolveWrapper();
+            wrapper.setParameters(parameters);
+            CpSolverResponse response = wrapper.solve(CpModelProto.parseFrom(model));
+            writeFrame(out, response.toByteArray());
+            out.flush();
+        }
+    }
+
+    static byte[] readFrame(DataInputStream in) throws IOException {
+        byte[] frame = new byte[in.readInt()];
+        in.readFully(frame);
+        return frame;
+    }
+
+    static void writeFrame(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+    }
+}
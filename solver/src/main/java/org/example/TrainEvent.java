@@ -0,0 +1,13 @@
+package org.example;
+
+/**
+ * A change to one train's state, as emitted by depot systems ("T05 mileage updated",
+ * "T03 no longer requires cleaning"). Fields left null are unchanged.
+ */
+public class TrainEvent {
+    public String id;
+    public Boolean requiresCleaning;
+    public Integer distanceTravelled;
+    public Integer brandingScore;
+    public Integer stablingScore;
+}
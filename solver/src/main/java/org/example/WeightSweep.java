@@ -0,0 +1,215 @@
+package org.example;
+
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Measures how stable a cleaning plan is under changes to the objective weights.
+ *
+ * <p>The fleet is parsed once and every weight vector is solved against the same {@link FleetTable}: the mileage
+ * deviations are computed before the fan-out and shared read-only, and each pool thread keeps one
+ * {@link ObjectiveCoefficients} that it recomputes in place, so each point only pays for a coefficient pass over
+ * existing arrays and its solve. Points are split recursively across a fork-join pool. For CP-SAT engines the
+ * per-point worker count is capped so that {@code parallelism * workersPerPoint} never exceeds the available cores.
+ *
+ * <p>The report compares every point with the plan under the fleet's own weights and lists the trains that
+ * enter or leave the selection, plus how often each unstable train was selected across the sweep.
+ */
+public class WeightSweep {
+
+    /**
+     * One solved weight vector.
+     */
+    public static class Point {
+        public Main.Weights weights;
+        public CpSolverStatus status;
+        public double objectiveValue;
+        public int assignedCount;
+        public List<String> flippedIn = new ArrayList<>();  // Selected here but not in the baseline plan.
+        public List<String> flippedOut = new ArrayList<>(); // Selected in the baseline plan but not here.
+    }
+
+    /**
+     * The outcome of a sweep.
+     */
+    public static class Report {
+        public Main.Weights baselineWeights;
+        public double baselineObjective;
+        public List<String> baselinePlan = new ArrayList<>();
+        public List<Point> points = new ArrayList<>();
+        // Trains that flip at one point or more: id -> number of points that selected it.
+        public Map<String, Integer> selectionCount = new LinkedHashMap<>();
+    }
+
+    private final SelectionEngine engine;
+    private final int parallelism;
+    private final int cores;
+
+    /**
+     * @param parallelism the number of points solved at once, at most one per available core;
+     *                    0 means one per available core.
+     */
+    public WeightSweep(SelectionEngine engine, int parallelism) {
+        this.engine = engine;
+        this.cores = Runtime.getRuntime().availableProcessors();
+        this.parallelism = parallelism > 0 ? Math.min(parallelism, cores) : cores;
+    }
+
+    /**
+     * @return every combination of the given weight values, branding varying slowest.
+     */
+    public static List<Main.Weights> grid(int[] branding, int[] stabling, int[] mileagePenalty) {
+        List<Main.Weights> vectors = new ArrayList<>(branding.length * stabling.length * mileagePenalty.length);
+        for (int b : branding) {
+            for (int s : stabling) {
+                for (int m : mileagePenalty) {
+                    vectors.add(weights(b, s, m));
+                }
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * Draws {@code count} weight vectors around {@code base}: each weight is scaled independently by a factor
+     * uniform in {@code [1 - spread, 1 + spread]} and rounded, never below zero. The same seed yields the same sample.
+     */
+    public static List<Main.Weights> sample(Main.Weights base, int count, double spread, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Main.Weights> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vectors.add(weights(perturb(base.branding, spread, random),
+                    perturb(base.stabling, spread, random),
+                    perturb(base.mileagePenalty, spread, random)));
+        }
+        return vectors;
+    }
+
+    private static int perturb(int weight, double spread, SplittableRandom random) {
+        double factor = 1 + spread * (2 * random.nextDouble() - 1);
+        return (int) Math.max(0, Math.round(weight * factor));
+    }
+
+    private static Main.Weights weights(int branding, int stabling, int mileagePenalty) {
+        Main.Weights weights = new Main.Weights();
+        weights.branding = branding;
+        weights.stabling = stabling;
+        weights.mileagePenalty = mileagePenalty;
+        return weights;
+    }
+
+    /**
+     * Solves the fleet under its own weights and under every vector in {@code vectors}.
+     *
+     * @throws IllegalArgumentException if the fleet has no config.
+     */
+    public Report run(FleetTable fleet, List<Main.Weights> vectors) {
+        if (fleet.config() == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        // Computed once here, so the concurrent solves below only ever read the cached deviations.
+        fleet.deviation();
+        Main.Weights baselineWeights = SelectionEngine.weightsOf(fleet.config());
+        PlanResult baseline = engine.solve(fleet, baselineWeights);
+
+        PlanResult[] plans = new PlanResult[vectors.size()];
+        if (!vectors.isEmpty()) {
+            int threads = Math.min(parallelism, vectors.size());
+            int workersPerPoint = Math.max(1, cores / threads);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ThreadLocal<ObjectiveCoefficients> coefficients = new ThreadLocal<>();
+            try {
+                pool.invoke(new SolveRange(fleet, vectors, plans, coefficients, workersPerPoint, 0, vectors.size()));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        Report report = new Report();
+        report.baselineWeights = baselineWeights;
+        report.baselineObjective = baseline.objectiveValue;
+        BitSet baselineAssigned = baseline.assigned;
+        for (int i = baselineAssigned.nextSetBit(0); i >= 0; i = baselineAssigned.nextSetBit(i + 1)) {
+            report.baselinePlan.add(fleet.id(i));
+        }
+
+        int[] selected = new int[fleet.size()];
+        BitSet unstable = new BitSet();
+        for (int p = 0; p < plans.length; p++) {
+            PlanResult plan = plans[p];
+            Point point = new Point();
+            point.weights = vectors.get(p);
+            point.status = plan.status;
+            point.objectiveValue = plan.objectiveValue;
+            point.assignedCount = plan.assignedCount();
+            BitSet assigned = plan.assigned;
+            for (int i = assigned.nextSetBit(0); i >= 0; i = assigned.nextSetBit(i + 1)) {
+                selected[i]++;
+            }
+            BitSet flipped = (BitSet) assigned.clone();
+            flipped.xor(baselineAssigned);
+            unstable.or(flipped);
+            for (int i = flipped.nextSetBit(0); i >= 0; i = flipped.nextSetBit(i + 1)) {
+                (assigned.get(i) ? point.flippedIn : point.flippedOut).add(fleet.id(i));
+            }
+            report.points.add(point);
+        }
+        for (int i = unstable.nextSetBit(0); i >= 0; i = unstable.nextSetBit(i + 1)) {
+            report.selectionCount.put(fleet.id(i), selected[i]);
+        }
+        return report;
+    }
+
+    /**
+     * Solves {@code vectors[from..to)}, halving the range down to single points.
+     */
+    private final class SolveRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FleetTable fleet;
+        private final List<Main.Weights> vectors;
+        private final PlanResult[] plans;
+        private final ThreadLocal<ObjectiveCoefficients> coefficients;
+        private final int workers;
+        private final int from;
+        private final int to;
+
+        SolveRange(FleetTable fleet, List<Main.Weights> vectors, PlanResult[] plans,
+                   ThreadLocal<ObjectiveCoefficients> coefficients, int workers, int from, int to) {
+            this.fleet = fleet;
+            this.vectors = vectors;
+            this.plans = plans;
+            this.coefficients = coefficients;
+            this.workers = workers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                // The plan never refers to the coefficients, so the next point on this thread can overwrite them.
+                ObjectiveCoefficients local = coefficients.get();
+                if (local == null) {
+                    local = ObjectiveCoefficients.of(fleet, vectors.get(from));
+                    coefficients.set(local);
+                } else {
+                    local.recompute(fleet, vectors.get(from));
+                }
+                plans[from] = engine.solve(fleet, local, workers);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SolveRange(fleet, vectors, plans, coefficients, workers, from, mid),
+                    new SolveRange(fleet, vectors, plans, coefficients, workers, mid, to));
+        }
+    }
+}
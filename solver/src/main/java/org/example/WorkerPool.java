@@ -0,0 +1,276 @@
+package org.example;
+
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverSolutionCallback;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.SatParameters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link SolveBackend} that runs every solve in a pool of pre-warmed child JVMs ({@link SolverWorker}).
+ *
+ * <p>A crash inside the native solver (an access violation in {@code jniortools}, for example) only takes
+ * down one child. The pool sees the broken pipe, replaces that worker in the background and retries the
+ * request on another one, up to {@code maxAttempts} times, so the service itself keeps running. A worker that
+ * cannot be started is retried with exponential backoff; crashes and failed starts are counted in the
+ * {@link SolverMetrics} given to {@link #withMetrics}, which the service exposes on {@code GET /metrics}.
+ *
+ * <p>A solve waits for a free worker only until its deadline: the earlier of the {@link SolveHandle}'s deadline
+ * and the solver's time limit, whatever the wait leaves of which is then handed to the worker. Cancelling the
+ * handle ends the wait with an {@code UNKNOWN} response, and a solve fails straight away if no worker is left
+ * running and the last attempt to start one failed.
+ */
+public class WorkerPool implements SolveBackend, Closeable {
+
+    private static final long MIN_RESPAWN_DELAY_MILLIS = 100;
+    private static final long MAX_RESPAWN_DELAY_MILLIS = 30_000;
+    private static final long TAKE_POLL_NANOS = 100_000_000;
+
+    private final int maxAttempts;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final List<Worker> all = new ArrayList<>();
+    private final ExecutorService respawner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "solver-worker-respawn");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder crashes = new LongAdder();
+    private volatile SolverMetrics metrics = new SolverMetrics();
+    private volatile boolean closed;
+    // The reason the last worker start failed; cleared as soon as a worker starts.
+    private volatile Exception lastStartFailure;
+
+    /**
+     * Starts {@code size} workers and waits until each has loaded the native libraries.
+     */
+    public WorkerPool(int size, int maxAttempts) throws IOException {
+        if (size < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("A worker pool needs at least one worker and one attempt");
+        }
+        this.maxAttempts = maxAttempts;
+        for (int i = 0; i < size; i++) {
+            idle.add(spawn());
+        }
+    }
+
+    public WorkerPool(int size) throws IOException {
+        this(size, 3);
+    }
+
+    /**
+     * Records worker crashes and failed restarts into the given registry instead of the pool's own.
+     */
+    public WorkerPool withMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    @Override
+    public CpSolverResponse solve(CpModel model, SatParameters parameters) {
+        return solve(model, parameters, null, null);
+    }
+
+    /**
+     * Solves in a worker process. The callback is never invoked; the handle bounds and can end the wait for a
+     * free worker, but not the search itself.
+     */
+    @Override
+    public CpSolverResponse solve(CpModel model, SatParameters parameters, CpSolverSolutionCallback callback,
+                                  SolveHandle handle) {
+        long deadline = Long.MAX_VALUE;
+        if (parameters.hasMaxTimeInSeconds() && !Double.isInfinite(parameters.getMaxTimeInSeconds())) {
+            deadline = System.nanoTime() + (long) (parameters.getMaxTimeInSeconds() * 1e9);
+        }
+        if (handle != null && handle.hasDeadline()) {
+            deadline = Math.min(deadline, System.nanoTime() + (long) (handle.remainingSeconds() * 1e9));
+        }
+        byte[] modelBytes = model.model().toByteArray();
+        IOException lastFailure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Worker worker = take(deadline, handle);
+            if (worker == null) {
+                // Cancelled while waiting: the same answer as a search stopped before it found anything.
+                return CpSolverResponse.newBuilder().setStatus(CpSolverStatus.UNKNOWN).build();
+            }
+            try {
+                byte[] parameterBytes = deadline == Long.MAX_VALUE ? parameters.toByteArray()
+                        : parameters.toBuilder()
+                                .setMaxTimeInSeconds(Math.max(0, deadline - System.nanoTime()) / 1e9)
+                                .build().toByteArray();
+                CpSolverResponse response = worker.solve(modelBytes, parameterBytes);
+                idle.add(worker);
+                return response;
+            } catch (IOException e) {
+                // The child died mid-solve; replace it and try again on the next idle worker.
+                lastFailure = e;
+                crashes.increment();
+                metrics.recordWorkerCrash();
+                worker.destroy();
+                respawnLater();
+            } catch (RuntimeException e) {
+                // The exchange stopped at an unknown point, so the worker's pipes can no longer be trusted.
+                crashes.increment();
+                metrics.recordWorkerCrash();
+                worker.destroy();
+                respawnLater();
+                throw e;
+            }
+        }
+        throw new IllegalStateException("Solve failed in " + maxAttempts + " worker processes", lastFailure);
+    }
+
+    /**
+     * @return how many workers have died while solving since the pool was started.
+     */
+    public long crashes() {
+        return crashes.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        respawner.shutdownNow();
+        synchronized (all) {
+            for (Worker worker : all) {
+                worker.destroy();
+            }
+        }
+    }
+
+    /**
+     * Waits for an idle worker until {@code deadline} (a {@link System#nanoTime()} value).
+     *
+     * @return the worker, or null if the handle was cancelled first.
+     * @throws IllegalStateException if the pool is closed, no worker is running or can be started, or the deadline
+     *                               passes first.
+     */
+    private Worker take(long deadline, SolveHandle handle) {
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("Worker pool is closed");
+                }
+                if (handle != null && handle.isCancelled()) {
+                    return null;
+                }
+                long wait = Math.min(TAKE_POLL_NANOS, deadline - System.nanoTime());
+                if (wait <= 0) {
+                    throw new IllegalStateException("No solver worker became free before the solve's deadline");
+                }
+                Worker worker = idle.poll(wait, TimeUnit.NANOSECONDS);
+                if (worker != null) {
+                    return worker;
+                }
+                Exception failure = lastStartFailure;
+                if (failure != null && !anyRunning()) {
+                    throw new IllegalStateException("No solver worker is running; the last start failed: "
+                            + failure.getMessage(), failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a solver worker", e);
+        }
+    }
+
+    private boolean anyRunning() {
+        synchronized (all) {
+            for (Worker worker : all) {
+                if (worker.process.isAlive()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Replaces a lost worker in the background, doubling the pause between failed starts up to a cap so that a
+     * child that cannot start at all (bad classpath, out of memory) does not turn into a busy loop.
+     */
+    private void respawnLater() {
+        respawner.execute(() -> {
+            long delay = MIN_RESPAWN_DELAY_MILLIS;
+            while (!closed) {
+                try {
+                    idle.add(spawn());
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    if (closed) {
+                        return;
+                    }
+                    lastStartFailure = e;
+                    metrics.recordWorkerStartFailure(e);
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return; // close() shuts the respawner down.
+                }
+                delay = Math.min(delay * 2, MAX_RESPAWN_DELAY_MILLIS);
+            }
+        });
+    }
+
+    private Worker spawn() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), SolverWorker.class.getName())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        Worker worker = new Worker(process);
+        // Registered before the wait for readiness, so a close() that runs meanwhile still destroys it.
+        synchronized (all) {
+            all.removeIf(w -> !w.process.isAlive());
+            all.add(worker);
+            if (closed) {
+                worker.destroy();
+                throw new IOException("Worker pool is closed");
+            }
+        }
+        if (worker.in.read() != SolverWorker.READY) {
+            worker.destroy();
+            throw new IOException("Solver worker exited before it was ready");
+        }
+        lastStartFailure = null;
+        return worker;
+    }
+
+    private static final class Worker {
+        final Process process;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Worker(Process process) {
+            this.process = process;
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        }
+
+        CpSolverResponse solve(byte[] model, byte[] parameters) throws IOException {
+            SolverWorker.writeFrame(out, model);
+            SolverWorker.writeFrame(out, parameters);
+            out.flush();
+            return CpSolverResponse.parseFrom(SolverWorker.readFrame(in));
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
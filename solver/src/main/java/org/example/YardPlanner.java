@@ -0,0 +1,288 @@
+package org.example;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+import com.google.ortools.sat.Literal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Plans which dead-end track every train is stabled on tonight so that tomorrow's departure sequence needs as
+ * few shunting moves as possible.
+ *
+ * <p>Trains with an {@code arrivalOrder} are stabled; they enter in that order and are pushed towards the buffer
+ * stop, so the order of the trains on a track follows from which trains share it. A train that departs later
+ * than a train parked behind it blocks that train and has to be shunted out of the way once; the planner
+ * minimises the number of such blockers. Trains without a {@code departureOrder} stay in the yard and count as
+ * departing last. Trains that arrive together are parked later departure first, which is never worse.
+ *
+ * <p>The model follows the arrivals rather than comparing pairs of trains: one choice of track per train, and
+ * per track a running minimum of the departure orders parked on it so far. A train is a blocker exactly when it
+ * departs after the running minimum of the track it joins, so the model grows with trains times tracks and not
+ * with the square of the fleet, and its precedence structure propagates well. Tracks of equal capacity are
+ * interchangeable, so they are opened in order, which removes the symmetric copies of each plan. A greedy
+ * assignment seeds the search.
+ */
+public class YardPlanner {
+
+    /**
+     * The trains parked on one track, from the buffer stop to the exit.
+     */
+    public static class TrackPlan {
+        public String trackId;
+        public List<String> trainIds = new ArrayList<>();
+    }
+
+    /**
+     * Tonight's stabling plan.
+     */
+    public static class YardPlan {
+        public CpSolverStatus status;
+        public long shuntingMoves;   // Trains parked in front of a train that departs before them.
+        public List<TrackPlan> tracks = new ArrayList<>();
+        public List<String> blockers = new ArrayList<>();
+        public SolveStatistics statistics;
+    }
+
+    private final SelectionEngine engine;
+
+    public YardPlanner(SelectionEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Assigns every stabled train to a track.
+     *
+     * @throws IllegalArgumentException if the fleet has no config, the config has no tracks, a capacity is negative,
+     *                                  or the yard has fewer positions than there are stabled trains.
+     */
+    public YardPlan plan(FleetTable fleet) {
+        Main.Config config = fleet.config();
+        if (config == null) {
+            throw new IllegalArgumentException("Input must contain 'config'");
+        }
+        if (config.tracks == null || config.tracks.isEmpty()) {
+            throw new IllegalArgumentException("Yard planning needs 'config.tracks'");
+        }
+        List<Main.Track> tracks = config.tracks;
+        int positions = 0;
+        for (Main.Track track : tracks) {
+            if (track.capacity < 0) {
+                throw new IllegalArgumentException("Track " + track.id + " has a negative capacity");
+            }
+            positions += track.capacity;
+        }
+        // Stabled trains in the order they are parked, and their departure ranks (1 = first out).
+        int[] sequence = sequence(fleet);
+        int trains = sequence.length;
+        if (trains > positions) {
+            throw new IllegalArgumentException("The yard has " + positions + " positions for " + trains + " trains");
+        }
+        int[] departure = departures(fleet, sequence);
+        // Above every departure: the running minimum of a track nobody has joined yet.
+        int empty = Arrays.stream(departure).max().orElse(0) + 1;
+        // The nearest earlier track with the same capacity, or -1.
+        int[] previousTwin = new int[tracks.size()];
+        for (int t = 0; t < tracks.size(); t++) {
+            previousTwin[t] = -1;
+            for (int u = t - 1; u >= 0; u--) {
+                if (tracks.get(u).capacity == tracks.get(t).capacity) {
+                    previousTwin[t] = u;
+                    break;
+                }
+            }
+        }
+
+        CpModel model = new CpModel();
+        BoolVar[][] parkedOn = new BoolVar[trains][tracks.size()];
+        // earliest[k][t]: the earliest departure on track t once the first k trains are parked.
+        IntVar[][] earliest = new IntVar[trains + 1][tracks.size()];
+        BoolVar[] blocker = new BoolVar[trains];
+        LinearExprBuilder[] load = new LinearExprBuilder[tracks.size()];
+        for (int t = 0; t < tracks.size(); t++) {
+            earliest[0][t] = model.newConstant(empty);
+            load[t] = LinearExpr.newBuilder();
+        }
+        for (int k = 0; k < trains; k++) {
+            String id = fleet.id(sequence[k]);
+            blocker[k] = model.newBoolVar("blocker_" + id);
+            for (int t = 0; t < tracks.size(); t++) {
+                parkedOn[k][t] = model.newBoolVar("parkedOn_" + id + "_" + t);
+                load[t].addTerm(parkedOn[k][t], 1);
+                earliest[k + 1][t] = model.newIntVar(1, empty, "earliest_" + k + "_" + t);
+                model.addLessOrEqual(earliest[k + 1][t], earliest[k][t]);
+                model.addLessOrEqual(earliest[k + 1][t], departure[k]).onlyEnforceIf(parkedOn[k][t]);
+                // Not a blocker: nothing already on the track departs before this train.
+                model.addGreaterOrEqual(earliest[k][t], departure[k])
+                        .onlyEnforceIf(new Literal[] {parkedOn[k][t], blocker[k].not()});
+                // Tracks of equal capacity are opened in order: a twin only once the one before it is in use.
+                if (previousTwin[t] >= 0) {
+                    model.addLessThan(earliest[k][previousTwin[t]], empty).onlyEnforceIf(parkedOn[k][t]);
+                }
+            }
+            model.addExactlyOne(parkedOn[k]);
+        }
+        for (int t = 0; t < tracks.size(); t++) {
+            model.addLessOrEqual(load[t].build(), tracks.get(t).capacity);
+        }
+        model.minimize(LinearExpr.sum(blocker));
+
+        // A complete hint, so that the search starts from the greedy plan instead of having to rediscover it.
+        int[] greedy = greedy(tracks, previousTwin, departure, empty);
+        int[] running = new int[tracks.size()];
+        Arrays.fill(running, empty);
+        for (int k = 0; k < trains; k++) {
+            int chosen = greedy[k];
+            model.addHint(blocker[k], departure[k] > running[chosen] ? 1 : 0);
+            running[chosen] = Math.min(running[chosen], departure[k]);
+            for (int t = 0; t < tracks.size(); t++) {
+                model.addHint(parkedOn[k][t], t == chosen ? 1 : 0);
+                model.addHint(earliest[k + 1][t], running[t]);
+            }
+        }
+
+        CpSolverResponse response = engine.solveRaw(model, config, trains * tracks.size());
+        YardPlan plan = new YardPlan();
+        plan.status = response.getStatus();
+        plan.statistics = SolveStatistics.from(response, model.model());
+        if (plan.status != CpSolverStatus.OPTIMAL && plan.status != CpSolverStatus.FEASIBLE) {
+            return plan;
+        }
+        for (Main.Track track : tracks) {
+            TrackPlan trackPlan = new TrackPlan();
+            trackPlan.trackId = track.id;
+            plan.tracks.add(trackPlan);
+        }
+        Arrays.fill(running, empty);
+        for (int k = 0; k < trains; k++) {
+            int t = 0;
+            while (response.getSolution(parkedOn[k][t].getIndex()) == 0) {
+                t++;
+            }
+            String id = fleet.id(sequence[k]);
+            plan.tracks.get(t).trainIds.add(id);
+            if (departure[k] > running[t]) {
+                plan.blockers.add(id);
+            }
+            running[t] = Math.min(running[t], departure[k]);
+        }
+        plan.shuntingMoves = plan.blockers.size();
+        return plan;
+    }
+
+    /**
+     * @return the positions of the trains with an arrival order, by arrival order and, among trains arriving
+     *         together, by departure order from last out to first out.
+     */
+    private static int[] sequence(FleetTable fleet) {
+        List<Integer> stabled = new ArrayList<>();
+        int lastDeparture = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            if (fleet.arrivalOrder[i] > 0) {
+                stabled.add(i);
+                lastDeparture = Math.max(lastDeparture, fleet.departureOrder[i]);
+            }
+        }
+        int stays = lastDeparture + 1;
+        stabled.sort(Comparator.comparingInt((Integer i) -> fleet.arrivalOrder[i])
+                .thenComparingInt(i -> fleet.departureOrder[i] > 0 ? -fleet.departureOrder[i] : -stays));
+        return stabled.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Replaces the departure orders of the given trains by 1, 2, ... keeping ties, with the trains that stay
+     * ranked after every departure. Keeps the variable domains as small as the number of distinct orders.
+     */
+    private static int[] departures(FleetTable fleet, int[] trains) {
+        TreeSet<Integer> distinct = new TreeSet<>();
+        for (int i : trains) {
+            if (fleet.departureOrder[i] > 0) {
+                distinct.add(fleet.departureOrder[i]);
+            }
+        }
+        int[] values = distinct.stream().mapToInt(Integer::intValue).toArray();
+        int[] ranks = new int[trains.length];
+        for (int k = 0; k < trains.length; k++) {
+            int value = fleet.departureOrder[trains[k]];
+            ranks[k] = value > 0 ? Arrays.binarySearch(values, value) + 1 : values.length + 1;
+        }
+        return ranks;
+    }
+
+    /**
+     * A starting plan: each train in turn onto the track where it blocks nobody and whose earliest departure is
+     * closest above its own, leaving the less constrained tracks for later trains. A train that must block leaves
+     * the running minimum of its track unchanged, so it goes to the track with space that is least useful to later
+     * trains, the one whose earliest departure is earliest. Tracks of equal capacity are relabelled in order of
+     * first use, as the model requires.
+     *
+     * @return the track of every train, in parking order.
+     */
+    private static int[] greedy(List<Main.Track> tracks, int[] previousTwin, int[] departure, int empty) {
+        int trains = departure.length;
+        int[] chosen = new int[trains];
+        int[] parked = new int[tracks.size()];
+        int[] running = new int[tracks.size()];
+        Arrays.fill(running, empty);
+        for (int k = 0; k < trains; k++) {
+            int best = -1;
+            for (int t = 0; t < tracks.size(); t++) {
+                if (parked[t] == tracks.get(t).capacity) {
+                    continue;
+                }
+                boolean fits = departure[k] <= running[t];
+                boolean bestFits = best >= 0 && departure[k] <= running[best];
+                if (best < 0 || (fits && !bestFits)
+                        || (fits == bestFits && running[t] < running[best])) {
+                    best = t;
+                }
+            }
+            chosen[k] = best;
+            parked[best]++;
+            running[best] = Math.min(running[best], departure[k]);
+        }
+
+        // Relabel twins: the n-th track of a capacity to be used becomes the n-th track of that capacity.
+        int[] relabel = new int[tracks.size()];
+        Arrays.fill(relabel, -1);
+        // Per first track of each capacity: the next track of that capacity not handed out yet.
+        int[] nextOfKind = new int[tracks.size()];
+        for (int t = 0; t < tracks.size(); t++) {
+            nextOfKind[t] = previousTwin[t] < 0 ? t : -1;
+        }
+        for (int k = 0; k < trains; k++) {
+            int t = chosen[k];
+            if (relabel[t] < 0) {
+                int first = t;
+                while (previousTwin[first] >= 0) {
+                    first = previousTwin[first];
+                }
+                relabel[t] = nextOfKind[first];
+                nextOfKind[first] = nextTwin(previousTwin, nextOfKind[first]);
+            }
+            chosen[k] = relabel[t];
+        }
+        return chosen;
+    }
+
+    /**
+     * @return the next track of the same capacity after {@code t}, or -1.
+     */
+    private static int nextTwin(int[] previousTwin, int t) {
+        for (int u = t + 1; u < previousTwin.length; u++) {
+            if (previousTwin[u] == t) {
+                return u;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSolverTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void returnsResultsInSubmissionOrder() {
+        SelectionEngine engine = new SelectionEngine().addExtension((model, fleet, isAssigned) -> { });
+        List<Main.InputData> batch = new ArrayList<>();
+        for (int slots = 1; slots <= 6; slots++) {
+            batch.add(SolverServiceTest.input(10 + slots, slots));
+        }
+
+        List<PlanResult> results;
+        try (BatchSolver solver = new BatchSolver(engine, 4)) {
+            results = solver.solveAll(batch);
+        }
+
+        assertEquals(batch.size(), results.size());
+        for (int k = 0; k < batch.size(); k++) {
+            PlanResult expected = engine.solve(batch.get(k));
+            assertEquals(CpSolverStatus.OPTIMAL, results.get(k).status);
+            assertEquals(k + 1, results.get(k).assignedCount());
+            assertEquals(expected.objectiveValue, results.get(k).objectiveValue, 1e-6);
+        }
+    }
+
+    @Test
+    void rejectsAnEntryWithoutConfig() {
+        List<Main.InputData> batch = List.of(SolverServiceTest.input(5, 1), new Main.InputData());
+
+        try (BatchSolver solver = new BatchSolver(new SelectionEngine(), 2)) {
+            assertThrows(IllegalArgumentException.class, () -> solver.solveAll(batch));
+        }
+    }
+
+    @Test
+    void instancesThatCannotGetASlotByTheDeadlineAreNotSolved() {
+        SolveSlots slots = new SolveSlots(1);
+        assertTrue(slots.acquire(null));
+        List<PlanResult> results;
+        try (BatchSolver solver = new BatchSolver(new SelectionEngine(), 1, slots)) {
+            results = solver.solveAll(List.of(SolverServiceTest.input(5, 1)), new SolveHandle(Duration.ofMillis(100)));
+        } finally {
+            slots.release();
+        }
+
+        PlanResult result = results.get(0);
+        assertTrue(result.interrupted);
+        assertFalse(result.hasSolution());
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaySchedulerTest {
+
+    private final BayScheduler scheduler = new BayScheduler(new SelectionEngine());
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void fillsIdenticalBaysBackToBack() {
+        Main.InputData data = SolverServiceTest.input(10, 0);
+        data.config.bays = List.of(bay("B1", 0, 240), bay("B2", 0, 240));
+
+        BayScheduler.Schedule schedule = scheduler.schedule(FleetTable.of(data));
+
+        assertEquals(CpSolverStatus.OPTIMAL, schedule.status);
+        assertEquals(4, schedule.bookings.size());
+        assertValid(FleetTable.of(data), schedule);
+    }
+
+    @Test
+    void crewsCapTheCleaningsInProgress() {
+        Main.InputData data = SolverServiceTest.input(10, 0);
+        data.config.bays = List.of(bay("B1", 0, 240), bay("B2", 0, 240));
+        data.config.cleaningCrews = 1;
+
+        BayScheduler.Schedule schedule = scheduler.schedule(FleetTable.of(data));
+
+        assertEquals(2, schedule.bookings.size());
+        assertValid(FleetTable.of(data), schedule);
+    }
+
+    @Test
+    void honoursShiftsAndPerTrainDurations() {
+        Main.InputData data = SolverServiceTest.input(12, 0);
+        for (int i = 0; i < data.trains.size(); i++) {
+            data.trains.get(i).cleaningMinutes = 30 + 15 * (i % 5);
+        }
+        data.config.bays = List.of(bay("Early", 0, 180), bay("Late", 120, 360), bay("Short", 200, 260));
+        data.config.cleaningCrews = 2;
+
+        BayScheduler.Schedule schedule = scheduler.schedule(FleetTable.of(data));
+
+        assertTrue(schedule.status == CpSolverStatus.OPTIMAL || schedule.status == CpSolverStatus.FEASIBLE);
+        assertValid(FleetTable.of(data), schedule);
+    }
+
+    @Test
+    void needsBays() {
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule(FleetTable.of(SolverServiceTest.input(3, 1))));
+    }
+
+    private static void assertValid(FleetTable fleet, BayScheduler.Schedule schedule) {
+        Map<String, Main.Bay> bays = new HashMap<>();
+        for (Main.Bay bay : fleet.config().bays) {
+            bays.put(bay.id, bay);
+        }
+        int crews = fleet.config().cleaningCrews > 0 ? fleet.config().cleaningCrews : bays.size();
+        Set<String> trains = new HashSet<>();
+        List<int[]> intervals = new ArrayList<>();
+        for (BayScheduler.Booking booking : schedule.bookings) {
+            assertTrue(trains.add(booking.trainId), booking.trainId + " is booked twice");
+            int i = fleet.indexOf(booking.trainId);
+            assertTrue(fleet.requiresCleaning(i));
+            assertEquals(fleet.cleaningMinutes(i), booking.end - booking.start);
+            Main.Bay bay = bays.get(booking.bayId);
+            assertTrue(booking.start >= bay.shiftStart && booking.end <= bay.shiftEnd, "outside the shift of " + bay.id);
+            for (BayScheduler.Booking other : schedule.bookings) {
+                if (other != booking && other.bayId.equals(booking.bayId)) {
+                    assertTrue(other.end <= booking.start || booking.end <= other.start, "overlap in " + bay.id);
+                }
+            }
+            intervals.add(new int[] {booking.start, booking.end});
+        }
+        for (int[] interval : intervals) {
+            long inProgress = intervals.stream().filter(o -> o[0] <= interval[0] && interval[0] < o[1]).count();
+            assertTrue(inProgress <= crews, "more cleanings in progress than crews");
+        }
+    }
+
+    private static Main.Bay bay(String id, int shiftStart, int shiftEnd) {
+        Main.Bay bay = new Main.Bay();
+        bay.id = id;
+        bay.shiftStart = shiftStart;
+        bay.shiftEnd = shiftEnd;
+        return bay;
+    }
+}
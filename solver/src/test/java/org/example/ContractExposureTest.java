@@ -0,0 +1,160 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractExposureTest {
+
+    private final SelectionEngine engine = new SelectionEngine();
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void ledgerMatchesARecountOfEveryDay() {
+        FleetTable fleet = FleetTable.of(branded(12, contract("K", 0, 30), contract("L", 0, 30)));
+        ExposureLedger ledger = new ExposureLedger(fleet);
+        Random random = new Random(131);
+        List<BitSet> history = new ArrayList<>();
+
+        for (int day = 0; day < 20; day++) {
+            BitSet cleaned = new BitSet();
+            for (int i = 0; i < fleet.size(); i++) {
+                if (random.nextInt(4) == 0) {
+                    cleaned.set(i);
+                }
+            }
+            ledger.record(cleaned);
+            history.add(cleaned);
+
+            for (int c = 0; c < ledger.contractCount(); c++) {
+                long recount = 0;
+                for (BitSet past : history) {
+                    for (int i = 0; i < fleet.size(); i++) {
+                        if (ledger.contractOf(i) == c && !past.get(i)) {
+                            recount += ledger.hoursPerDay();
+                        }
+                    }
+                }
+                assertEquals(recount, ledger.delivered(c), "day " + day + ", contract " + c);
+            }
+        }
+        assertEquals(20, ledger.daysRecorded());
+    }
+
+    @Test
+    void rejectsInvalidContracts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExposureLedger(FleetTable.of(branded(2, contract("K", 0, 1), contract("K", 0, 1)))));
+        Main.InputData unknown = branded(2, contract("K", 0, 1));
+        unknown.trains.get(0).brandingContract = "nope";
+        assertThrows(IllegalArgumentException.class, () -> new ExposureLedger(FleetTable.of(unknown)));
+    }
+
+    @Test
+    void keepsEnoughWrappedTrainsInService() {
+        // Two wrapped trains over 3 days can deliver 2 * 3 * 10 = 60 hours; the contract leaves room for one cleaning.
+        Main.InputData data = branded(2, contract("K", 50, 2));
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, FleetTable.of(data), 3);
+
+        RollingHorizonPlanner.HorizonPlan plan = planner.solve();
+
+        assertEquals(CpSolverStatus.OPTIMAL, plan.status);
+        long cleanings = plan.days.stream().mapToLong(day -> day.assignedForCleaning.size()).sum();
+        assertEquals(1, cleanings);
+        RollingHorizonPlanner.ContractExposure exposure = plan.contracts.get(0);
+        assertEquals(50, exposure.plannedHours);
+        assertTrue(exposure.met);
+        assertEquals(0, exposure.shortfallHours);
+        assertTrue(plan.contractsMet);
+    }
+
+    @Test
+    void reportsAContractThatCanNoLongerBeMet() {
+        Main.InputData data = branded(2, contract("K", 1000, 4), contract("L", 10, 4));
+        data.trains.get(1).brandingContract = "L";
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, FleetTable.of(data), 2);
+
+        RollingHorizonPlanner.HorizonPlan plan = planner.solve();
+
+        assertEquals(CpSolverStatus.OPTIMAL, plan.status);
+        RollingHorizonPlanner.ContractExposure unmet = plan.contracts.get(0);
+        // Its train stays in service: 10 hours a day over days 0 to 4.
+        assertEquals(20, unmet.plannedHours);
+        assertEquals(50, unmet.projectedHours);
+        assertFalse(unmet.met);
+        assertEquals(950, unmet.shortfallHours);
+        assertTrue(plan.contracts.get(1).met);
+        assertFalse(plan.contractsMet);
+    }
+
+    @Test
+    void closedDaysCountTowardsTheContract() {
+        Main.InputData data = branded(1, contract("K", 20, 2));
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, FleetTable.of(data), 1);
+
+        for (int day = 0; day < 3; day++) {
+            RollingHorizonPlanner.HorizonPlan plan = planner.solve();
+            assertTrue(plan.contractsMet, "day " + day);
+            planner.advance();
+        }
+
+        assertEquals(20, planner.ledger().delivered(0));
+    }
+
+    @Test
+    void daysAfterTheEndDayDoNotCount() {
+        Main.InputData data = branded(1, contract("K", 30, 2));
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, FleetTable.of(data), 1);
+
+        // Cleaned on day 0 against the plan, so days 1 and 2 deliver only 20 of the 30 hours.
+        planner.advance(List.of("T0"));
+        for (int day = 1; day < 5; day++) {
+            planner.advance(List.of());
+        }
+        RollingHorizonPlanner.HorizonPlan plan = planner.solve();
+
+        assertEquals(20, planner.ledger().delivered(0));
+        RollingHorizonPlanner.ContractExposure expired = plan.contracts.get(0);
+        assertEquals(20, expired.deliveredHours);
+        assertEquals(20, expired.projectedHours);
+        assertFalse(expired.met);
+        assertEquals(10, expired.shortfallHours);
+        assertFalse(plan.contractsMet);
+    }
+
+    /**
+     * {@code trains} trains that all require cleaning and carry the first contract's wrap, running 10 hours a day.
+     */
+    private static Main.InputData branded(int trains, Main.BrandingContract... contracts) {
+        Main.InputData data = SolverServiceTest.input(trains, trains);
+        data.config.serviceHoursPerDay = 10;
+        data.config.contracts = List.of(contracts);
+        for (Main.Train train : data.trains) {
+            train.brandingContract = contracts[0].id;
+        }
+        return data;
+    }
+
+    private static Main.BrandingContract contract(String id, int minExposureHours, int endDay) {
+        Main.BrandingContract contract = new Main.BrandingContract();
+        contract.id = id;
+        contract.minExposureHours = minExposureHours;
+        contract.endDay = endDay;
+        return contract;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EligibilityFilterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Test
+    void certificateBoundsAreInclusive() {
+        Main.Train train = train("A");
+        train.rollingStockValidFrom = "2026-03-10";
+        train.rollingStockValidUntil = "2026-03-10";
+
+        assertNull(EligibilityFilter.reasonToWithhold(train, DAY));
+    }
+
+    @Test
+    void namesEveryReasonToWithhold() {
+        Main.Train train = train("A");
+        train.rollingStockValidFrom = "2026-03-11";
+        train.signallingValidUntil = "2026-03-09";
+        train.openJobCards = 2;
+
+        assertEquals("rolling-stock certificate not yet valid, valid from 2026-03-11; "
+                        + "signalling certificate expired, valid until 2026-03-09; 2 open job cards",
+                EligibilityFilter.reasonToWithhold(train, DAY));
+    }
+
+    @Test
+    void withholdsIneligibleTrainsFromTheTable() {
+        Main.InputData data = SolverServiceTest.input(3, 3);
+        data.config.serviceDate = "2026-03-10";
+        data.trains.get(1).signallingValidUntil = "2026-03-01";
+        data.trains.get(2).openJobCards = 1;
+
+        FleetTable fleet = FleetTable.of(data);
+
+        assertEquals(1, fleet.size());
+        assertEquals("T0", fleet.id(0));
+        assertEquals(List.of("T1", "T2"), List.copyOf(fleet.withheld().keySet()));
+        assertEquals("1 open job card", fleet.withheld().get("T2"));
+    }
+
+    @Test
+    void usesTheDefaultDateUntilTheConfigNamesOne() {
+        FleetTable fleet = new FleetTable();
+        EligibilityFilter filter = new EligibilityFilter(fleet, DAY);
+        filter.config(new Main.Config());
+        Main.Train train = train("A");
+        train.rollingStockValidUntil = "2026-03-10";
+
+        filter.train(train);
+
+        assertEquals(1, fleet.size());
+    }
+
+    @Test
+    void rejectsAServiceDateThatArrivesAfterTheTrainsWereJudged() {
+        EligibilityFilter filter = new EligibilityFilter(new FleetTable(), DAY);
+        filter.train(train("A"));
+        Main.Config config = new Main.Config();
+        config.serviceDate = "2026-03-11";
+
+        assertThrows(IllegalArgumentException.class, () -> filter.config(config));
+    }
+
+    @Test
+    void rejectsDatesThatAreNotIso() {
+        Main.Train train = train("A");
+        train.signallingValidFrom = "10/03/2026";
+
+        assertThrows(IllegalArgumentException.class, () -> EligibilityFilter.reasonToWithhold(train, DAY));
+        Main.Config config = new Main.Config();
+        config.serviceDate = "tomorrow";
+        assertThrows(IllegalArgumentException.class, () -> new EligibilityFilter(new FleetTable()).config(config));
+    }
+
+    private static Main.Train train(String id) {
+        Main.Train train = new Main.Train();
+        train.id = id;
+        return train;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FleetBinaryCodecTest {
+
+    @Test
+    void roundTripsAGeneratedFleet() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FleetBinaryCodec.Writer writer = new FleetBinaryCodec.Writer(out)) {
+            new FleetGenerator(121, 500).generate(writer);
+        }
+        FleetTable direct = new FleetTable();
+        new FleetGenerator(121, 500).generate(direct);
+
+        FleetTable decoded = new FleetTable();
+        FleetBinaryCodec.read(new ByteArrayInputStream(out.toByteArray()), decoded);
+
+        assertEquals(direct.size(), decoded.size());
+        assertEquals(direct.config().numCleaningSlots, decoded.config().numCleaningSlots);
+        assertEquals(direct.config().avgFleetDistance, decoded.config().avgFleetDistance);
+        for (int i = 0; i < direct.size(); i++) {
+            assertEquals(direct.id(i), decoded.id(i));
+            assertEquals(direct.requiresCleaning(i), decoded.requiresCleaning(i));
+            assertEquals(direct.distanceTravelled(i), decoded.distanceTravelled(i));
+            assertEquals(direct.brandingScore(i), decoded.brandingScore(i));
+            assertEquals(direct.stablingScore(i), decoded.stablingScore(i));
+        }
+    }
+
+    @Test
+    void ineligibleTrainsStayIneligibleAfterARoundTrip() throws IOException {
+        Main.InputData data = SolverServiceTest.input(4, 4);
+        data.config.serviceDate = "2026-03-10";
+        data.trains.get(0).rollingStockValidFrom = "2026-03-11";
+        data.trains.get(1).signallingValidUntil = "2026-03-09";
+        data.trains.get(2).openJobCards = 3;
+        data.trains.get(3).rollingStockValidUntil = "2026-03-10";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FleetBinaryCodec.Writer writer = new FleetBinaryCodec.Writer(out)) {
+            writer.config(data.config);
+            data.trains.forEach(writer::train);
+        }
+
+        FleetTable fleet = new FleetTable();
+        // The default date would let every train run; only the encoded service date withholds them.
+        FleetBinaryCodec.read(new ByteArrayInputStream(out.toByteArray()),
+                new EligibilityFilter(fleet, LocalDate.of(2025, 3, 10)));
+
+        assertEquals("2026-03-10", fleet.config().serviceDate);
+        assertEquals(1, fleet.size());
+        assertEquals("T3", fleet.id(0));
+        assertEquals(FleetTable.of(data).withheld(), fleet.withheld());
+    }
+
+    @Test
+    void carriesTheWholeConfigAndThePreviousPlan() throws IOException {
+        Main.InputData data = SolverServiceTest.input(3, 2);
+        data.config.solver = new Main.SolverParameters();
+        data.config.solver.numWorkers = 4;
+        data.config.solver.maxTimeInSeconds = 2.5;
+        data.config.weights.branding = 3;
+        data.config.weights.mileagePenalty = 7;
+        data.config.objective = Main.ObjectiveMode.LEXICOGRAPHIC;
+        Main.Bay bay = new Main.Bay();
+        bay.id = "B1";
+        bay.shiftStart = 60;
+        bay.shiftEnd = 480;
+        data.config.bays = List.of(bay);
+        data.config.cleaningCrews = 2;
+        data.config.defaultCleaningMinutes = 90;
+        Main.Track track = new Main.Track();
+        track.id = "Y1";
+        track.capacity = 3;
+        data.config.tracks = List.of(track);
+        Main.BrandingContract contract = new Main.BrandingContract();
+        contract.id = "C1";
+        contract.minExposureHours = 40;
+        contract.endDay = 5;
+        data.config.contracts = List.of(contract);
+        data.config.serviceHoursPerDay = 18;
+        data.trains.get(0).cleaningMinutes = 150;
+        data.trains.get(1).arrivalOrder = 1;
+        data.trains.get(1).departureOrder = 2;
+        data.trains.get(2).brandingContract = "C1";
+        data.previousAssignment = Map.of("T0", true, "T2", false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FleetBinaryCodec.Writer writer = new FleetBinaryCodec.Writer(out)) {
+            writer.config(data.config);
+            data.trains.forEach(writer::train);
+            data.previousAssignment.forEach(writer::previousAssignment);
+        }
+
+        FleetTable fleet = new FleetTable();
+        FleetBinaryCodec.read(new ByteArrayInputStream(out.toByteArray()), fleet);
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.valueToTree(data.config), mapper.valueToTree(fleet.config()));
+        for (int i = 0; i < data.trains.size(); i++) {
+            assertEquals(mapper.valueToTree(FleetTable.of(data).train(i)), mapper.valueToTree(fleet.train(i)));
+        }
+        assertEquals(data.previousAssignment, fleet.previousAssignment());
+    }
+
+    @Test
+    void rejectsOtherVersions() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(FleetBinaryCodec.MAGIC);
+        out.writeInt(FleetBinaryCodec.VERSION - 1);
+        out.writeInt(2);
+        out.writeInt(6500);
+        out.writeByte(0);
+
+        assertThrows(IOException.class,
+                () -> FleetBinaryCodec.read(new ByteArrayInputStream(bytes.toByteArray()), new FleetTable()));
+    }
+
+    @Test
+    void rejectsOtherFormats() {
+        byte[] json = "{\"config\":{}}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> FleetBinaryCodec.read(new ByteArrayInputStream(json), new FleetTable()));
+    }
+
+    @Test
+    void theWriterNeedsTheConfigFirst() {
+        FleetBinaryCodec.Writer writer = new FleetBinaryCodec.Writer(new ByteArrayOutputStream());
+
+        assertThrows(IllegalStateException.class, () -> writer.train(new Main.Train()));
+    }
+}
@@ -0,0 +1,61 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class FleetGeneratorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void sameSeedGivesTheSameFleet() throws IOException {
+        assertArrayEquals(json(new FleetGenerator(42, 500)), json(new FleetGenerator(42, 500)));
+        assertFalse(Arrays.equals(json(new FleetGenerator(42, 500)), json(new FleetGenerator(43, 500))));
+    }
+
+    @Test
+    void followsTheSettings() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(1, 1000).slotRatio(0.05).cleaningRate(1.0).avgFleetDistance(8000).generate(fleet);
+
+        assertEquals(1000, fleet.size());
+        assertEquals(50, fleet.config().numCleaningSlots);
+        assertEquals(8000, fleet.config().avgFleetDistance);
+        assertEquals(1000, fleet.candidateCount());
+    }
+
+    @Test
+    void writtenJsonReadsBackAsTheSameFleet() throws IOException {
+        FleetTable direct = new FleetTable();
+        new FleetGenerator(9, 300).generate(direct);
+
+        FleetTable read = new FleetTable();
+        new FleetStreamReader(mapper).read(new ByteArrayInputStream(json(new FleetGenerator(9, 300))), read);
+
+        assertEquals(direct.size(), read.size());
+        for (int i = 0; i < direct.size(); i++) {
+            assertEquals(direct.id(i), read.id(i));
+            assertEquals(direct.requiresCleaning(i), read.requiresCleaning(i));
+            assertEquals(direct.distanceTravelled(i), read.distanceTravelled(i));
+            assertEquals(direct.brandingScore(i), read.brandingScore(i));
+            assertEquals(direct.stablingScore(i), read.stablingScore(i));
+        }
+    }
+
+    private byte[] json(FleetGenerator generator) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FleetJsonWriter writer = new FleetJsonWriter(mapper, out)) {
+            generator.generate(writer);
+        }
+        return out.toByteArray();
+    }
+}
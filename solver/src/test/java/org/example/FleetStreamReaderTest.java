@@ -0,0 +1,89 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FleetStreamReaderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void matchesTheBoundDocument() throws IOException {
+        // Config after the trains and fields out of order.
+        String json = "{\"trains\":["
+                + "{\"stablingScore\":4,\"id\":\"A\",\"requiresCleaning\":true,"
+                + "\"distanceTravelled\":1200,\"brandingScore\":7,\"cleaningMinutes\":90},"
+                + "{\"id\":\"B\",\"distanceTravelled\":800,\"arrivalOrder\":2,\"departureOrder\":1,"
+                + "\"brandingContract\":\"K\"}],"
+                + "\"config\":{\"numCleaningSlots\":1,\"avgFleetDistance\":1000}}";
+
+        FleetTable streamed = read(json);
+        FleetTable bound = FleetTable.of(mapper.readValue(json, Main.InputData.class));
+
+        assertEquals(bound.size(), streamed.size());
+        assertEquals(bound.config().numCleaningSlots, streamed.config().numCleaningSlots);
+        for (int i = 0; i < bound.size(); i++) {
+            assertEquals(bound.id(i), streamed.id(i));
+            assertEquals(bound.requiresCleaning(i), streamed.requiresCleaning(i));
+            assertEquals(bound.distanceTravelled(i), streamed.distanceTravelled(i));
+            assertEquals(bound.brandingScore(i), streamed.brandingScore(i));
+            assertEquals(bound.stablingScore(i), streamed.stablingScore(i));
+            assertEquals(bound.cleaningMinutes(i), streamed.cleaningMinutes(i));
+            assertEquals(bound.arrivalOrder(i), streamed.arrivalOrder(i));
+            assertEquals(bound.departureOrder(i), streamed.departureOrder(i));
+            assertEquals(bound.brandingContract(i), streamed.brandingContract(i));
+        }
+    }
+
+    @Test
+    void skipsUnknownFields() throws IOException {
+        FleetTable fleet = read("{\"extra\":[{\"trains\":[]}],\"config\":{},\"trains\":["
+                + "{\"id\":\"A\",\"note\":{\"x\":[1,{\"y\":2}]},\"brandingScore\":3}]}");
+
+        assertEquals(1, fleet.size());
+        assertEquals(3, fleet.brandingScore(0));
+    }
+
+    @Test
+    void resetsTheReusedTrainBetweenElements() throws IOException {
+        FleetTable fleet = read("{\"config\":{},\"trains\":["
+                + "{\"id\":\"A\",\"requiresCleaning\":true,\"brandingScore\":9,\"brandingContract\":\"K\"},"
+                + "{\"id\":\"B\"}]}");
+
+        assertFalse(fleet.requiresCleaning(1));
+        assertEquals(0, fleet.brandingScore(1));
+        assertNull(fleet.brandingContract(1));
+    }
+
+    @Test
+    void skipsPreviousAssignmentEntriesThatAreNotBooleans() throws IOException {
+        FleetTable fleet = read("{\"config\":{},\"previousAssignment\":"
+                + "{\"A\":{\"assigned\":true},\"B\":[true],\"C\":true}}");
+
+        assertEquals(Map.of("C", true), fleet.previousAssignment());
+    }
+
+    @Test
+    void readsNullTrainsAndPreviousAssignmentAsAbsent() throws IOException {
+        FleetTable fleet = read("{\"config\":{},\"trains\":null,\"previousAssignment\":null}");
+
+        assertEquals(0, fleet.size());
+        assertTrue(fleet.previousAssignment().isEmpty());
+    }
+
+    private FleetTable read(String json) throws IOException {
+        FleetTable fleet = new FleetTable();
+        new FleetStreamReader(mapper).read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), fleet);
+        return fleet;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FleetTableTest {
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(3, 100).generate(fleet);
+
+        assertEquals(100, fleet.size());
+        assertEquals("T000100", fleet.id(99));
+        assertEquals(99, fleet.indexOf("T000100"));
+    }
+
+    @Test
+    void keepsTheFirstOfDuplicateIds() {
+        FleetTable fleet = FleetTable.of(input("A", "B", "A"));
+
+        assertEquals(0, fleet.indexOf("A"));
+        assertEquals(1, fleet.indexOf("B"));
+        assertEquals(-1, fleet.indexOf("C"));
+    }
+
+    @Test
+    void deviationFollowsTheAverageAndMileageUpdates() {
+        FleetTable fleet = FleetTable.of(input("A", "B"));
+        assertArrayEquals(new long[] {100, 0}, fleet.deviation());
+
+        fleet.config().avgFleetDistance = 1100;
+        assertArrayEquals(new long[] {0, 100}, fleet.deviation());
+
+        fleet.distanceTravelled(1, 1300);
+        assertArrayEquals(new long[] {0, 200}, fleet.deviation());
+    }
+
+    @Test
+    void materialisesTrainsFromTheColumns() {
+        FleetTable fleet = FleetTable.of(input("A", "B"));
+
+        Main.Train train = fleet.train(1);
+
+        assertEquals("B", train.id);
+        assertEquals(1000, train.distanceTravelled);
+        assertEquals(fleet.config().defaultCleaningMinutes, fleet.cleaningMinutes(1));
+    }
+
+    /**
+     * Trains with mileage 1100, 1000, 900, ... against an average of 1000.
+     */
+    private static Main.InputData input(String... ids) {
+        Main.InputData data = new Main.InputData();
+        data.config = new Main.Config();
+        data.config.avgFleetDistance = 1000;
+        List<Main.Train> trains = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            Main.Train train = new Main.Train();
+            train.id = ids[i];
+            train.distanceTravelled = 1100 - 100 * i;
+            trains.add(train);
+        }
+        data.trains = trains;
+        return data;
+    }
+}
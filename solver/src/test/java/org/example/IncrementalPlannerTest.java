@@ -0,0 +1,126 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalPlannerTest {
+
+    private final SelectionEngine engine = new SelectionEngine();
+
+    @Test
+    void matchesAFullRecomputeAfterEveryEvent() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(31, 300).generate(fleet);
+        IncrementalPlanner planner = new IncrementalPlanner(engine, fleet);
+        SplittableRandom random = new SplittableRandom(31);
+
+        for (int step = 0; step < 500; step++) {
+            TrainEvent event = new TrainEvent();
+            event.id = fleet.id(random.nextInt(fleet.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    event.requiresCleaning = random.nextBoolean();
+                    break;
+                case 1:
+                    event.distanceTravelled = 5000 + random.nextInt(3000);
+                    break;
+                case 2:
+                    event.brandingScore = random.nextInt(101);
+                    break;
+                default:
+                    event.stablingScore = random.nextInt(101);
+            }
+            planner.apply(event);
+            if (step % 100 == 99) {
+                planner.setSlots(random.nextInt(60));
+            }
+
+            assertEquals(engine.solve(fleet).objectiveValue, planner.plan().objectiveValue, "step " + step);
+            assertEquals(Math.min(fleet.config().numCleaningSlots, positiveCandidates(fleet)),
+                    planner.plan().assignedCount(), "step " + step);
+        }
+    }
+
+    @Test
+    void reportsWhetherTheSelectionChanged() {
+        FleetTable fleet = FleetTable.of(SolverServiceTest.input(10, 1));
+        IncrementalPlanner planner = new IncrementalPlanner(engine, fleet);
+        int selected = planner.plan().assigned.nextSetBit(0);
+        int other = selected == 0 ? 1 : 0;
+
+        TrainEvent minor = new TrainEvent();
+        minor.id = fleet.id(other);
+        minor.stablingScore = fleet.stablingScore(other);
+        assertFalse(planner.apply(minor));
+
+        TrainEvent promote = new TrainEvent();
+        promote.id = fleet.id(other);
+        promote.brandingScore = 1000;
+        assertTrue(planner.apply(promote));
+        assertEquals(other, planner.plan().assigned.nextSetBit(0));
+        assertEquals(1, planner.reselections());
+    }
+
+    @Test
+    void aSnapshotIsNotChangedByLaterEvents() {
+        FleetTable fleet = FleetTable.of(SolverServiceTest.input(10, 1));
+        IncrementalPlanner planner = new IncrementalPlanner(engine, fleet);
+        PlanResult snapshot = planner.plan();
+        int selected = snapshot.assigned.nextSetBit(0);
+        int other = selected == 0 ? 1 : 0;
+        int brandingScore = fleet.brandingScore(other);
+
+        TrainEvent promote = new TrainEvent();
+        promote.id = fleet.id(other);
+        promote.brandingScore = 1000;
+        assertTrue(planner.apply(promote));
+
+        assertEquals(brandingScore, snapshot.fleet.brandingScore(other));
+        assertEquals(fleet.id(selected), snapshot.getAssignedForCleaning().get(0).id);
+        assertEquals(brandingScore, snapshot.getGoingToService().stream()
+                .filter(t -> t.id.equals(fleet.id(other))).findFirst().orElseThrow().brandingScore);
+    }
+
+    @Test
+    void appliesNoEventOfABatchWithAnUnknownTrain() {
+        FleetTable fleet = FleetTable.of(SolverServiceTest.input(10, 2));
+        IncrementalPlanner planner = new IncrementalPlanner(engine, fleet);
+        double before = planner.plan().objectiveValue;
+        TrainEvent known = new TrainEvent();
+        known.id = fleet.id(0);
+        known.brandingScore = 1000;
+        TrainEvent unknown = new TrainEvent();
+        unknown.id = "nope";
+
+        assertThrows(IllegalArgumentException.class, () -> planner.applyAll(List.of(known, unknown)));
+
+        assertEquals(before, planner.plan().objectiveValue);
+        assertEquals(0, fleet.brandingScore(0));
+    }
+
+    @Test
+    void rejectsEnginesWithExtensions() {
+        SelectionEngine extended = new SelectionEngine().addExtension((model, fleet, isAssigned) -> { });
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new IncrementalPlanner(extended, FleetTable.of(SolverServiceTest.input(5, 1))));
+    }
+
+    private static int positiveCandidates(FleetTable fleet) {
+        ObjectiveCoefficients coefficients = ObjectiveCoefficients.of(fleet, SelectionEngine.weightsOf(fleet.config()));
+        int count = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            if (fleet.requiresCleaning(i) && coefficients.coefficient[i] > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
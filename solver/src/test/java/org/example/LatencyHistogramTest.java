@@ -0,0 +1,66 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucket() {
+        long previousBucket = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket >= previousBucket, "buckets must not decrease");
+            assertTrue(value <= LatencyHistogram.highestValueIn(bucket));
+            if (bucket > 0) {
+                assertTrue(value > LatencyHistogram.highestValueIn(bucket - 1));
+            }
+            previousBucket = bucket;
+        }
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(last));
+    }
+
+    @Test
+    void percentilesStayWithinTheBucketResolution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertWithin(500_000, histogram.valueAtPercentile(50));
+        assertWithin(990_000, histogram.valueAtPercentile(99));
+        assertEquals(1_000_000, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void snapshotIsInMicroseconds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2_000);
+        histogram.record(4_000);
+
+        Map<String, Object> snapshot = histogram.snapshot();
+
+        assertEquals(2L, snapshot.get("count"));
+        assertEquals(3.0, snapshot.get("meanMicros"));
+        assertEquals(4.0, snapshot.get("maxMicros"));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= 1.0 / LatencyHistogram.SUB_BUCKETS, "expected about " + expected + " but was " + actual);
+    }
+}
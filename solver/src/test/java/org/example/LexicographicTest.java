@@ -0,0 +1,118 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LexicographicTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void optimisesBrandingThenBalanceThenStabling() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(71, 16).slotRatio(0.25).cleaningRate(0.8).generate(fleet);
+        fleet.config().objective = Main.ObjectiveMode.LEXICOGRAPHIC;
+
+        PlanResult result = new SelectionEngine().solve(fleet);
+
+        assertEquals(CpSolverStatus.OPTIMAL, result.status);
+        long[] best = null;
+        for (long[] totals : everySelection(fleet)) {
+            if (best == null || compare(totals, best) > 0) {
+                best = totals;
+            }
+        }
+        assertArrayEquals(best, totals(fleet, result.assigned::get));
+    }
+
+    @Test
+    void statisticsDescribeThePlanAcrossAllStages() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(72, 200).generate(fleet);
+        fleet.config().objective = Main.ObjectiveMode.LEXICOGRAPHIC;
+
+        PlanResult result = new SelectionEngine().solve(fleet);
+
+        assertEquals(result.objectiveValue, result.statistics.objectiveValue);
+        assertEquals(result.objectiveValue, result.statistics.bestObjectiveBound);
+        assertEquals(fleet.candidateCount(), result.statistics.modelVariables);
+    }
+
+    @Test
+    void ofRunsSumsTheSearchAndKeepsTheWorstGap() {
+        SolveStatistics first = new SolveStatistics();
+        first.wallTimeSeconds = 1;
+        first.numBranches = 10;
+        first.relativeGap = 0.2;
+        first.modelConstraints = 1;
+        SolveStatistics second = new SolveStatistics();
+        second.wallTimeSeconds = 2;
+        second.numBranches = 5;
+        second.modelConstraints = 2;
+
+        SolveStatistics stats = SolveStatistics.ofRuns(List.of(first, second), 42);
+
+        assertEquals(3, stats.wallTimeSeconds);
+        assertEquals(15, stats.numBranches);
+        assertEquals(0.2, stats.relativeGap);
+        assertEquals(2, stats.modelConstraints);
+        assertEquals(42, stats.objectiveValue);
+        assertEquals(42, stats.bestObjectiveBound);
+    }
+
+    /**
+     * Branding, assigned deviation and stabling totals of every selection the slots allow, by brute force.
+     */
+    private static List<long[]> everySelection(FleetTable fleet) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < fleet.size(); i++) {
+            if (fleet.requiresCleaning(i)) {
+                candidates.add(i);
+            }
+        }
+        List<long[]> selections = new ArrayList<>();
+        for (int mask = 0; mask < 1 << candidates.size(); mask++) {
+            if (Integer.bitCount(mask) <= fleet.config().numCleaningSlots) {
+                int bits = mask;
+                selections.add(totals(fleet, i -> {
+                    int c = candidates.indexOf(i);
+                    return c >= 0 && (bits & 1 << c) != 0;
+                }));
+            }
+        }
+        return selections;
+    }
+
+    private static long[] totals(FleetTable fleet, IntPredicate assigned) {
+        long[] totals = new long[3];
+        for (int i = 0; i < fleet.size(); i++) {
+            if (assigned.test(i)) {
+                totals[0] += fleet.brandingScore(i);
+                totals[1] += fleet.deviation()[i];
+                totals[2] += fleet.stablingScore(i);
+            }
+        }
+        return totals;
+    }
+
+    private static int compare(long[] a, long[] b) {
+        for (int k = 0; k < a.length; k++) {
+            if (a[k] != b[k]) {
+                return Long.compare(a[k], b[k]);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ObjectiveWeightsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void aRequestOverridesOnlyTheWeightsItSends() throws IOException {
+        FleetTable fleet = new FleetTable();
+        new FleetStreamReader(mapper).read(new ByteArrayInputStream(
+                "{\"config\":{\"weights\":{\"branding\":3}},\"trains\":[]}".getBytes(StandardCharsets.UTF_8)), fleet);
+
+        Main.Weights weights = SelectionEngine.weightsOf(fleet.config());
+
+        assertEquals(3, weights.branding);
+        assertEquals(new Main.Weights().stabling, weights.stabling);
+        assertEquals(new Main.Weights().mileagePenalty, weights.mileagePenalty);
+    }
+
+    @Test
+    void explicitNullWeightsFallBackToTheDefaults() {
+        Main.Config config = new Main.Config();
+        config.weights = null;
+
+        Main.Weights weights = SelectionEngine.weightsOf(config);
+
+        assertEquals(new Main.Weights().branding, weights.branding);
+    }
+
+    @Test
+    void coefficientsFollowTheWeights() {
+        FleetTable fleet = FleetTable.of(SolverServiceTest.input(4, 1));
+        Main.Weights weights = new Main.Weights();
+        weights.branding = 2;
+        weights.stabling = 3;
+        weights.mileagePenalty = 4;
+
+        ObjectiveCoefficients coefficients = ObjectiveCoefficients.of(fleet, weights);
+
+        for (int i = 0; i < fleet.size(); i++) {
+            long penalty = Math.abs(fleet.distanceTravelled(i) - 1000L) * 4;
+            assertEquals(penalty, coefficients.penalty[i]);
+            assertEquals(fleet.brandingScore(i) * 2L + fleet.stablingScore(i) * 3L + penalty, coefficients.coefficient[i]);
+        }
+    }
+
+    @Test
+    void recomputeMatchesAFreshSet() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(41, 100).generate(fleet);
+        Main.Weights other = new Main.Weights();
+        other.branding = 1;
+        other.mileagePenalty = 7;
+
+        ObjectiveCoefficients reused = ObjectiveCoefficients.of(fleet, new Main.Weights());
+        reused.recompute(fleet, other);
+        ObjectiveCoefficients fresh = ObjectiveCoefficients.of(fleet, other);
+
+        assertArrayEquals(fresh.coefficient, reused.coefficient);
+        assertArrayEquals(fresh.penalty, reused.penalty);
+    }
+
+    @Test
+    void theEngineSolvesUnderTheRequestedWeights() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(42, 100).generate(fleet);
+        Main.Weights brandingOnly = new Main.Weights();
+        brandingOnly.stabling = 0;
+        brandingOnly.mileagePenalty = 0;
+
+        PlanResult result = new SelectionEngine().solve(fleet, brandingOnly);
+
+        long expected = 0;
+        for (int i = result.assigned.nextSetBit(0); i >= 0; i = result.assigned.nextSetBit(i + 1)) {
+            expected += fleet.brandingScore(i) * (long) brandingOnly.branding;
+        }
+        assertEquals(expected, result.objectiveValue);
+        assertNotEquals(new SelectionEngine().solve(fleet).objectiveValue, result.objectiveValue);
+    }
+}
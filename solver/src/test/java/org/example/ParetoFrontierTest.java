@@ -0,0 +1,94 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParetoFrontierTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void pointsAreParetoOptimalAndSpanBothExtremes() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(61, 14).slotRatio(0.25).cleaningRate(0.8).generate(fleet);
+        List<long[]> outcomes = everySelection(fleet);
+
+        List<ParetoFrontier.Point> frontier = new ParetoFrontier(new SelectionEngine(), 0).compute(fleet, 6);
+
+        assertFalse(frontier.isEmpty());
+        long previousBranding = Long.MIN_VALUE;
+        for (ParetoFrontier.Point point : frontier) {
+            assertTrue(point.brandingScore > previousBranding, "points must be distinct, by increasing branding");
+            previousBranding = point.brandingScore;
+            assertEquals(point.brandingScore, outcomeOf(fleet, point.assignedForCleaning)[0]);
+            assertEquals(point.mileageDeviation, outcomeOf(fleet, point.assignedForCleaning)[1]);
+            for (long[] outcome : outcomes) {
+                boolean dominates = outcome[0] >= point.brandingScore && outcome[1] <= point.mileageDeviation
+                        && (outcome[0] > point.brandingScore || outcome[1] < point.mileageDeviation);
+                assertFalse(dominates, "a selection dominates the point at branding " + point.brandingScore);
+            }
+        }
+        long maxBranding = outcomes.stream().mapToLong(o -> o[0]).max().getAsLong();
+        long minDeviation = outcomes.stream().mapToLong(o -> o[1]).min().getAsLong();
+        assertEquals(maxBranding, frontier.get(frontier.size() - 1).brandingScore);
+        assertEquals(minDeviation, frontier.get(0).mileageDeviation);
+    }
+
+    @Test
+    void needsAtLeastTwoPoints() {
+        FleetTable fleet = FleetTable.of(SolverServiceTest.input(5, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> new ParetoFrontier(new SelectionEngine(), 1).compute(fleet, 1));
+    }
+
+    /**
+     * The (branding, deviation) outcome of every selection the slots allow, by brute force.
+     */
+    private static List<long[]> everySelection(FleetTable fleet) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < fleet.size(); i++) {
+            if (fleet.requiresCleaning(i)) {
+                candidates.add(i);
+            }
+        }
+        List<long[]> outcomes = new ArrayList<>();
+        for (int mask = 0; mask < 1 << candidates.size(); mask++) {
+            if (Integer.bitCount(mask) > fleet.config().numCleaningSlots) {
+                continue;
+            }
+            List<String> ids = new ArrayList<>();
+            for (int c = 0; c < candidates.size(); c++) {
+                if ((mask & 1 << c) != 0) {
+                    ids.add(fleet.id(candidates.get(c)));
+                }
+            }
+            outcomes.add(outcomeOf(fleet, ids));
+        }
+        return outcomes;
+    }
+
+    private static long[] outcomeOf(FleetTable fleet, List<String> assigned) {
+        long branding = 0;
+        long deviation = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            if (assigned.contains(fleet.id(i))) {
+                branding += fleet.brandingScore(i);
+            } else {
+                deviation += fleet.deviation()[i];
+            }
+        }
+        return new long[] {branding, deviation};
+    }
+}
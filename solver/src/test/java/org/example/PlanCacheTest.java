@@ -0,0 +1,155 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanCacheTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void answersTheSameTrainsInAnyOrderFromTheCache() {
+        PlanCache cache = new PlanCache(new SelectionEngine(), 16, Duration.ofMinutes(1));
+        Main.InputData reversed = SolverServiceTest.input(20, 3);
+        Collections.reverse(reversed.trains);
+
+        PlanResult first = cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)));
+        PlanResult second = cache.solve(FleetTable.of(reversed));
+
+        assertSame(first, second);
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void keysIncludeTheWeights() {
+        PlanCache cache = new PlanCache(new SelectionEngine(), 16, Duration.ofMinutes(1));
+        Main.InputData reweighted = SolverServiceTest.input(20, 3);
+        reweighted.config.weights.branding = 11;
+
+        cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)));
+        cache.solve(FleetTable.of(reweighted));
+
+        assertEquals(2L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void keysIncludeThePreviousPlan() {
+        PlanCache cache = new PlanCache(new SelectionEngine(), 16, Duration.ofMinutes(1));
+        Main.InputData hinted = SolverServiceTest.input(20, 3);
+        hinted.previousAssignment = Map.of("T0", true);
+        Main.InputData otherwiseHinted = SolverServiceTest.input(20, 3);
+        otherwiseHinted.previousAssignment = Map.of("T0", false);
+
+        assertNotEquals(cache.keyOf(FleetTable.of(SolverServiceTest.input(20, 3))), cache.keyOf(FleetTable.of(hinted)));
+        assertNotEquals(cache.keyOf(FleetTable.of(hinted)), cache.keyOf(FleetTable.of(otherwiseHinted)));
+    }
+
+    @Test
+    void keysTellAMissingIdFromTheIdNull() {
+        PlanCache cache = new PlanCache(new SelectionEngine(), 16, Duration.ofMinutes(1));
+        Main.InputData missing = SolverServiceTest.input(3, 1);
+        missing.trains.get(0).id = null;
+        Main.InputData named = SolverServiceTest.input(3, 1);
+        named.trains.get(0).id = "null";
+
+        assertNotEquals(cache.keyOf(FleetTable.of(missing)), cache.keyOf(FleetTable.of(named)));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        PlanCache cache = new PlanCache(new SelectionEngine(), 1, Duration.ofMinutes(1));
+
+        cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)));
+        cache.solve(FleetTable.of(SolverServiceTest.input(20, 4)));
+        cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)));
+
+        assertEquals(3L, cache.stats().get("misses"));
+        assertEquals(1, cache.stats().get("entries"));
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneSolve() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PlanCache cache = new PlanCache(blockingEngine(release), 16, Duration.ofMinutes(1));
+
+        CompletableFuture<PlanResult> leader = CompletableFuture.supplyAsync(
+                () -> cache.solve(FleetTable.of(SolverServiceTest.input(20, 3))));
+        CompletableFuture<PlanResult> follower = CompletableFuture.supplyAsync(() -> {
+            awaitStat(cache, "misses", 1);
+            return cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)));
+        });
+        awaitStat(cache, "coalesced", 1);
+        release.countDown();
+
+        assertSame(leader.get(30, TimeUnit.SECONDS), follower.get(30, TimeUnit.SECONDS));
+        assertEquals(1L, cache.stats().get("misses"));
+        assertEquals(1L, cache.stats().get("coalesced"));
+    }
+
+    @Test
+    void followersSolveAgainWhenTheLeaderIsCancelled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PlanCache cache = new PlanCache(blockingEngine(release), 16, Duration.ofMinutes(1));
+        SolveHandle leaderHandle = new SolveHandle();
+
+        CompletableFuture<PlanResult> leader = CompletableFuture.supplyAsync(
+                () -> cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)), leaderHandle));
+        CompletableFuture<PlanResult> follower = CompletableFuture.supplyAsync(() -> {
+            awaitStat(cache, "misses", 1);
+            return cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)));
+        });
+        awaitStat(cache, "coalesced", 1);
+        leaderHandle.cancel();
+        release.countDown();
+
+        assertTrue(leader.get(30, TimeUnit.SECONDS).interrupted);
+        PlanResult plan = follower.get(30, TimeUnit.SECONDS);
+        assertFalse(plan.interrupted);
+        assertTrue(plan.hasSolution());
+        assertEquals(2L, cache.stats().get("misses"));
+    }
+
+    /**
+     * An engine whose model build waits for {@code release}, so a solve stays in flight until the test lets it go.
+     */
+    private static SelectionEngine blockingEngine(CountDownLatch release) {
+        return new SelectionEngine().addExtension((model, fleet, isAssigned) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Waits until one of the cache's counters reaches {@code atLeast}.
+     */
+    private static void awaitStat(PlanCache cache, String stat, long atLeast) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((Long) cache.stats().get(stat) < atLeast) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("'" + stat + "' never reached " + atLeast);
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
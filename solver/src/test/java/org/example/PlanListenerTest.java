@@ -0,0 +1,69 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanListenerTest {
+
+    private final SelectionEngine engine = new SelectionEngine().addExtension((model, fleet, isAssigned) -> { });
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void receivesStrictlyImprovingFeasiblePlans() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(81, 300).generate(fleet);
+        List<PlanResult> plans = new ArrayList<>();
+
+        PlanResult result = engine.solve(fleet, plans::add);
+
+        assertEquals(CpSolverStatus.OPTIMAL, result.status);
+        assertFalse(plans.isEmpty());
+        double previous = Double.NEGATIVE_INFINITY;
+        for (PlanResult plan : plans) {
+            assertEquals(CpSolverStatus.FEASIBLE, plan.status);
+            assertTrue(plan.objectiveValue > previous);
+            assertTrue(plan.assignedCount() <= fleet.config().numCleaningSlots);
+            previous = plan.objectiveValue;
+        }
+        assertTrue(previous <= result.objectiveValue);
+    }
+
+    @Test
+    void aThrowingListenerFailsTheSolve() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(82, 100).generate(fleet);
+        IllegalStateException failure = new IllegalStateException("client went away");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> engine.solve(fleet, plan -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void closedFormSolvesNeverCallTheListener() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(83, 100).generate(fleet);
+
+        new SelectionEngine().solve(fleet, plan -> {
+            throw new AssertionError("unexpected plan");
+        });
+    }
+}
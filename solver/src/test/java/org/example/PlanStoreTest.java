@@ -0,0 +1,68 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadsTheSavedAssignmentOfEveryCandidate() throws IOException {
+        Main.InputData data = SolverServiceTest.input(6, 2);
+        data.trains.get(5).requiresCleaning = false;
+        PlanResult plan = new SelectionEngine().solve(data);
+        PlanStore store = new PlanStore(dir.resolve("plans").resolve("last.json"), new ObjectMapper());
+
+        store.save(plan);
+        Map<String, Boolean> loaded = store.load();
+
+        assertEquals(PlanStore.assignmentOf(plan), loaded);
+        assertEquals(5, loaded.size());
+        assertEquals(2, loaded.values().stream().filter(Boolean::booleanValue).count());
+        assertFalse(loaded.containsKey("T5"));
+        // The temporary file was moved into place, not left beside it.
+        try (Stream<Path> files = Files.list(dir.resolve("plans"))) {
+            assertEquals(List.of("last.json"), files.map(p -> p.getFileName().toString()).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void aPlanWithoutASolutionIsNotWritten() throws IOException {
+        Path path = dir.resolve("last.json");
+        PlanStore store = new PlanStore(path, new ObjectMapper());
+        PlanResult infeasible = new SelectionEngine().solve(SolverServiceTest.input(6, -1));
+        assertEquals(CpSolverStatus.INFEASIBLE, infeasible.status);
+
+        store.save(infeasible);
+        assertFalse(Files.exists(path));
+
+        PlanResult good = new SelectionEngine().solve(SolverServiceTest.input(6, 2));
+        store.save(good);
+        String saved = Files.readString(path);
+        store.save(infeasible);
+
+        assertEquals(saved, Files.readString(path));
+        assertEquals(PlanStore.assignmentOf(good), store.load());
+    }
+
+    @Test
+    void loadsNothingBeforeTheFirstSave() throws IOException {
+        assertTrue(new PlanStore(dir.resolve("last.json"), new ObjectMapper()).load().isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingHorizonPlannerTest {
+
+    private final SelectionEngine engine = new SelectionEngine();
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void aOneDayHorizonIsTonightsSelection() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(101, 100).generate(fleet);
+
+        RollingHorizonPlanner.HorizonPlan plan = new RollingHorizonPlanner(engine, fleet, 1).solve();
+
+        ObjectiveCoefficients coefficients = ObjectiveCoefficients.of(fleet, SelectionEngine.weightsOf(fleet.config()));
+        assertEquals(CpSolverStatus.OPTIMAL, plan.status);
+        assertEquals(engine.solve(fleet).objectiveValue - coefficients.constant(), plan.objectiveValue, 1e-6);
+    }
+
+    @Test
+    void aTrainIsCleanedOnceEveryWindowLength() {
+        FleetTable fleet = FleetTable.of(SolverServiceTest.input(1, 1));
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, fleet, 3);
+
+        List<Integer> cleaned = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            RollingHorizonPlanner.HorizonPlan plan = planner.solve();
+            if (!plan.days.get(0).assignedForCleaning.isEmpty()) {
+                cleaned.add(plan.days.get(0).day);
+            }
+            planner.advance();
+        }
+
+        assertEquals(List.of(0, 3, 6), cleaned);
+    }
+
+    @Test
+    void everyWindowRespectsTheSlotsAndTheOnceOnlyRule() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(102, 40).slotRatio(0.1).generate(fleet);
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, fleet, 4);
+
+        for (int step = 0; step < 5; step++) {
+            RollingHorizonPlanner.HorizonPlan plan = planner.solve();
+            assertEquals(CpSolverStatus.OPTIMAL, plan.status);
+            assertEquals(4, plan.days.size());
+            Set<String> seen = new HashSet<>();
+            for (RollingHorizonPlanner.DayPlan day : plan.days) {
+                assertEquals(planner.firstDay() + plan.days.indexOf(day), day.day);
+                assertTrue(day.assignedForCleaning.size() <= fleet.config().numCleaningSlots);
+                for (String id : day.assignedForCleaning) {
+                    assertTrue(seen.add(id), id + " is cleaned twice in one window");
+                }
+            }
+            planner.advance();
+        }
+    }
+
+    @Test
+    void advancingNeedsAPlanForTheFirstDay() {
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(engine, FleetTable.of(SolverServiceTest.input(3, 1)), 2);
+
+        assertThrows(IllegalStateException.class, planner::advance);
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SelectionEngineTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void closedFormMatchesCpSat() {
+        SelectionEngine closedForm = new SelectionEngine();
+        // Any extension forces the CP-SAT path, even one that adds nothing.
+        SelectionEngine cpSat = new SelectionEngine().addExtension((model, fleet, isAssigned) -> { });
+        for (long seed = 1; seed <= 5; seed++) {
+            FleetTable fleet = new FleetTable();
+            new FleetGenerator(seed, 200).generate(fleet);
+
+            PlanResult fast = closedForm.solve(fleet);
+            PlanResult exact = cpSat.solve(fleet);
+
+            assertEquals(PlanResult.SolvePath.CLOSED_FORM, fast.solvePath);
+            assertEquals(CpSolverStatus.OPTIMAL, fast.status);
+            assertEquals(CpSolverStatus.OPTIMAL, exact.status);
+            assertEquals(exact.objectiveValue, fast.objectiveValue, 1e-6, "seed " + seed);
+            assertEquals(fleet.config().numCleaningSlots, fast.assignedCount());
+        }
+    }
+
+    @Test
+    void closedFormReportsNegativeSlotsAsInfeasible() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(1, 10).generate(fleet);
+        fleet.config().numCleaningSlots = -1;
+
+        assertEquals(CpSolverStatus.INFEASIBLE, new SelectionEngine().solve(fleet).status);
+    }
+
+    @Test
+    void selectTopKMovesTheLargestKeysToTheFront() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 100; round++) {
+            int n = 1 + random.nextInt(50);
+            int k = 1 + random.nextInt(n);
+            long[] keys = new long[n];
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                // A narrow range, so ties around the pivot are common.
+                keys[i] = random.nextInt(10);
+                values[i] = i;
+            }
+            long[] original = keys.clone();
+
+            SelectionEngine.selectTopK(keys, values, 0, n - 1, k);
+
+            long[] expected = original.clone();
+            Arrays.sort(expected);
+            long[] top = Arrays.copyOf(keys, k);
+            Arrays.sort(top);
+            assertArrayEquals(Arrays.copyOfRange(expected, n - k, n), top);
+            for (int i = 0; i < n; i++) {
+                assertEquals(original[values[i]], keys[i], "values must move with their keys");
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolveHandleTest {
+
+    private final SelectionEngine engine = new SelectionEngine().addExtension((model, fleet, isAssigned) -> { });
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void aSolveCancelledBeforeItStartsIsInterrupted() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(91, 200).generate(fleet);
+        SolveHandle handle = new SolveHandle();
+        handle.cancel();
+
+        PlanResult result = engine.solve(fleet, null, handle);
+
+        assertTrue(result.interrupted);
+    }
+
+    @Test
+    void anExpiredDeadlineInterruptsTheSolve() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(92, 200).generate(fleet);
+        SolveHandle handle = new SolveHandle(Duration.ZERO);
+
+        assertTrue(handle.isExpired());
+        assertTrue(engine.solve(fleet, null, handle).interrupted);
+    }
+
+    @Test
+    void anUnusedHandleLeavesTheSolveAlone() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(93, 200).generate(fleet);
+
+        PlanResult result = engine.solve(fleet, null, new SolveHandle(Duration.ofMinutes(1)));
+
+        assertFalse(result.interrupted);
+        assertEquals(engine.solve(fleet).objectiveValue, result.objectiveValue);
+    }
+
+    @Test
+    void sameDeadlineCopiesTheDeadlineButNotTheCancellation() {
+        SolveHandle handle = new SolveHandle(Duration.ofMinutes(1));
+        handle.cancel();
+
+        SolveHandle copy = handle.sameDeadline();
+
+        assertTrue(copy.hasDeadline());
+        assertFalse(copy.isCancelled());
+        assertFalse(new SolveHandle().hasDeadline());
+    }
+
+    @Test
+    void slotsGiveUpAtTheDeadline() {
+        SolveSlots slots = new SolveSlots(2);
+
+        assertTrue(slots.acquire(null, 5)); // Clamped to the capacity.
+        assertFalse(slots.acquire(new SolveHandle(Duration.ofMillis(50))));
+        slots.release(5);
+        assertTrue(slots.acquire(new SolveHandle(Duration.ofMillis(50)), 2));
+    }
+
+    @Test
+    void aFollowerStopsWaitingAtItsOwnDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SelectionEngine blocking = new SelectionEngine().addExtension((model, fleet, isAssigned) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        PlanCache cache = new PlanCache(blocking, 16, Duration.ofMinutes(1), new SolveSlots(1));
+        CompletableFuture<PlanResult> leader = CompletableFuture.supplyAsync(
+                () -> cache.solve(FleetTable.of(SolverServiceTest.input(20, 3))));
+        while ((Long) cache.stats().get("misses") < 1) {
+            Thread.onSpinWait();
+        }
+
+        PlanResult follower = cache.solve(FleetTable.of(SolverServiceTest.input(20, 3)),
+                new SolveHandle(Duration.ofMillis(200)));
+
+        assertTrue(follower.interrupted);
+        assertFalse(follower.hasSolution());
+        assertFalse(leader.isDone());
+        release.countDown();
+        assertTrue(leader.get(30, TimeUnit.SECONDS).hasSolution());
+    }
+}
@@ -0,0 +1,60 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolveStatisticsTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void cpSatSolveReportsItsStatistics() {
+        SolverMetrics metrics = new SolverMetrics();
+        SelectionEngine engine = new SelectionEngine().withMetrics(metrics)
+                .addExtension((model, fleet, isAssigned) -> { });
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(5, 100).generate(fleet);
+
+        PlanResult result = engine.solve(fleet);
+
+        assertEquals(CpSolverStatus.OPTIMAL, result.status);
+        SolveStatistics stats = result.statistics;
+        assertEquals(result.objectiveValue, stats.objectiveValue, 1e-6);
+        assertEquals(stats.objectiveValue, stats.bestObjectiveBound, 1e-6);
+        assertEquals(0.0, stats.relativeGap);
+        assertEquals(fleet.candidateCount(), stats.modelVariables);
+        assertEquals(stats.modelVariables - stats.presolvedVariables, stats.presolveReductions);
+
+        Map<?, ?> solver = (Map<?, ?>) metrics.snapshot().get("solver");
+        assertEquals(1L, ((Map<?, ?>) solver.get("wallTime")).get("count"));
+        assertEquals(0L, solver.get("solvesWithOpenGap"));
+    }
+
+    @Test
+    void closedFormStatisticsHaveNoGap() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(5, 100).generate(fleet);
+
+        SolveStatistics stats = new SelectionEngine().solve(fleet).statistics;
+
+        assertEquals(stats.objectiveValue, stats.bestObjectiveBound);
+        assertEquals(0.0, stats.relativeGap);
+        assertTrue(stats.wallTimeSeconds >= 0);
+    }
+
+    @Test
+    void relativeGapIsScaledByTheObjective() {
+        assertEquals(0.1, SolveStatistics.relativeGap(100, 110), 1e-12);
+        assertEquals(5.0, SolveStatistics.relativeGap(0, 5), 1e-12);
+    }
+}
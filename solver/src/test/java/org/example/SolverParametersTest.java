@@ -0,0 +1,57 @@
+package org.example;
+
+import com.google.ortools.sat.SatParameters;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SolverParametersTest {
+
+    @Test
+    void nullBlockKeepsTheDefaults() {
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+
+        SelectionEngine.applyParameters(parameters, null, 10);
+
+        assertFalse(parameters.hasNumWorkers());
+        assertFalse(parameters.hasMaxTimeInSeconds());
+        assertFalse(parameters.hasRelativeGapLimit());
+    }
+
+    @Test
+    void explicitValuesAreCopied() {
+        Main.SolverParameters config = new Main.SolverParameters();
+        config.numWorkers = 3;
+        config.maxTimeInSeconds = 2.5;
+        config.relativeGapLimit = 0.01;
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+
+        SelectionEngine.applyParameters(parameters, config, 10);
+
+        assertEquals(3, parameters.getNumWorkers());
+        assertEquals(2.5, parameters.getMaxTimeInSeconds());
+        assertEquals(0.01, parameters.getRelativeGapLimit());
+    }
+
+    @Test
+    void autoWorkersUseOneWorkerForSmallModels() {
+        Main.SolverParameters config = new Main.SolverParameters();
+        config.autoWorkers = true;
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+
+        SelectionEngine.applyParameters(parameters, config, SelectionEngine.AUTO_WORKERS_SMALL_MODEL - 1);
+
+        assertEquals(1, parameters.getNumWorkers());
+    }
+
+    @Test
+    void autoWorkersAreCappedByCoresAndNumWorkers() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int large = SelectionEngine.AUTO_WORKERS_SMALL_MODEL;
+
+        assertEquals(cores, SelectionEngine.autoWorkerCount(large, 0));
+        assertEquals(1, SelectionEngine.autoWorkerCount(large, 1));
+        assertEquals(cores, SelectionEngine.autoWorkerCount(large, cores + 8));
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SolverServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    private static SolverService service;
+
+    @BeforeAll
+    static void start() throws IOException {
+        service = new SolverService(new SelectionEngine(), 0);
+        service.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        service.stop();
+    }
+
+    @Test
+    void solvesAPostedFleet() throws Exception {
+        HttpResponse<String> response = send("POST", "/solve", MAPPER.writeValueAsString(input(20, 3)));
+
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode plan = MAPPER.readTree(response.body());
+        assertEquals("OPTIMAL", plan.get("status").asText());
+        assertEquals(3, plan.get("assignedForCleaning").size());
+    }
+
+    @Test
+    void rejectsMalformedInput() throws Exception {
+        assertEquals(400, send("POST", "/solve", "{\"config\":").statusCode());
+    }
+
+    @Test
+    void answersHealthAndMetrics() throws Exception {
+        assertEquals(200, send("GET", "/health", null).statusCode());
+        assertEquals(200, send("GET", "/metrics", null).statusCode());
+    }
+
+    @Test
+    void answersOnlyExactPaths() throws Exception {
+        assertEquals(404, send("POST", "/solvez", "{}").statusCode());
+        assertEquals(404, send("GET", "/health/x", null).statusCode());
+        assertEquals(404, send("POST", "/solve/cancel/", null).statusCode());
+        assertEquals(405, send("GET", "/solve", null).statusCode());
+        assertEquals(405, send("POST", "/metrics", "{}").statusCode());
+    }
+
+    @Test
+    void appliesEventsToTheLivePlan() throws Exception {
+        assertEquals(200, send("PUT", "/plan", MAPPER.writeValueAsString(input(10, 1))).statusCode());
+
+        HttpResponse<String> response = send("POST", "/plan/events",
+                "[{\"id\":\"T3\",\"brandingScore\":1000}]");
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = MAPPER.readTree(response.body());
+        assertEquals("T3", body.get("plan").get("assignedForCleaning").get(0).get("id").asText());
+        assertEquals(400, send("POST", "/plan/events", "[{\"id\":\"T3\"},{\"id\":\"nope\"}]").statusCode());
+    }
+
+    static HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + service.port() + path))
+                .method(method, publisher)
+                .build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * A fleet in which every train requires cleaning.
+     */
+    static Main.InputData input(int trains, int slots) {
+        Main.InputData data = new Main.InputData();
+        data.config = new Main.Config();
+        data.config.numCleaningSlots = slots;
+        data.config.avgFleetDistance = 1000;
+        data.trains = new ArrayList<>();
+        for (int i = 0; i < trains; i++) {
+            Main.Train train = new Main.Train();
+            train.id = "T" + i;
+            train.requiresCleaning = true;
+            train.distanceTravelled = 900 + 10 * i;
+            train.brandingScore = i % 7;
+            train.stablingScore = i % 5;
+            data.trains.add(train);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.PartialVariableAssignment;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class WarmStartTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void hintsTheCandidatesThePreviousPlanMentions() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(11, 50).cleaningRate(1.0).generate(fleet);
+        fleet.previousAssignment(fleet.id(0), true);
+        fleet.previousAssignment(fleet.id(1), false);
+        fleet.previousAssignment("not-in-the-fleet", true);
+
+        SelectionEngine.SelectionModel selection = new SelectionEngine().buildModel(fleet);
+
+        PartialVariableAssignment hint = selection.model.model().getSolutionHint();
+        List<Integer> vars = new ArrayList<>(hint.getVarsList());
+        assertEquals(List.of(selection.isAssigned[0].getIndex(), selection.isAssigned[1].getIndex()), vars);
+        assertEquals(List.of(1L, 0L), hint.getValuesList());
+    }
+
+    @Test
+    void noPreviousPlanMeansNoHints() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(11, 50).generate(fleet);
+
+        SelectionEngine.SelectionModel selection = new SelectionEngine().buildModel(fleet);
+
+        assertFalse(selection.model.model().hasSolutionHint());
+    }
+
+    @Test
+    void hintsDoNotChangeTheOptimum() {
+        SelectionEngine engine = new SelectionEngine();
+        FleetTable cold = new FleetTable();
+        new FleetGenerator(12, 200).generate(cold);
+        FleetTable warm = new FleetTable();
+        new FleetGenerator(12, 200).generate(warm);
+        // A deliberately poor previous plan: every candidate unassigned.
+        for (int i = 0; i < warm.size(); i++) {
+            warm.previousAssignment(warm.id(i), false);
+        }
+
+        PlanResult coldResult = engine.solveModel(engine.buildModel(cold));
+        PlanResult warmResult = engine.solveModel(engine.buildModel(warm));
+
+        assertEquals(coldResult.objectiveValue, warmResult.objectiveValue, 1e-6);
+    }
+}
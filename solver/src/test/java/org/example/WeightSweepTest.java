@@ -0,0 +1,62 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightSweepTest {
+
+    @Test
+    void gridEnumeratesEveryCombinationBrandingSlowest() {
+        List<Main.Weights> grid = WeightSweep.grid(new int[] {1, 2}, new int[] {3}, new int[] {4, 5});
+
+        assertEquals(4, grid.size());
+        assertEquals(1, grid.get(0).branding);
+        assertEquals(5, grid.get(1).mileagePenalty);
+        assertEquals(2, grid.get(2).branding);
+    }
+
+    @Test
+    void sampleIsDeterministicAndStaysInTheSpread() {
+        Main.Weights base = new Main.Weights();
+        List<Main.Weights> first = WeightSweep.sample(base, 50, 0.5, 7);
+        List<Main.Weights> second = WeightSweep.sample(base, 50, 0.5, 7);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).branding, second.get(i).branding);
+            assertEquals(first.get(i).stabling, second.get(i).stabling);
+            assertTrue(first.get(i).branding >= 5 && first.get(i).branding <= 15);
+        }
+    }
+
+    @Test
+    void everyPointMatchesASingleSolveAndItsFlipsAgainstTheBaseline() {
+        SelectionEngine engine = new SelectionEngine();
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(51, 200).generate(fleet);
+        List<Main.Weights> vectors = WeightSweep.sample(new Main.Weights(), 12, 0.9, 51);
+
+        WeightSweep.Report report = new WeightSweep(engine, 0).run(fleet, vectors);
+
+        PlanResult baseline = engine.solve(fleet);
+        assertEquals(baseline.objectiveValue, report.baselineObjective);
+        assertEquals(vectors.size(), report.points.size());
+        for (int p = 0; p < vectors.size(); p++) {
+            WeightSweep.Point point = report.points.get(p);
+            PlanResult expected = engine.solve(fleet, vectors.get(p));
+            assertEquals(expected.objectiveValue, point.objectiveValue);
+
+            List<String> plan = new ArrayList<>(report.baselinePlan);
+            plan.removeAll(point.flippedOut);
+            plan.addAll(point.flippedIn);
+            assertEquals(expected.assignedCount(), plan.size());
+            for (String id : plan) {
+                assertTrue(expected.isAssigned(fleet.indexOf(id)));
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolverResponse;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+import com.google.ortools.sat.SatParameters;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkerPoolTest {
+
+    private static WorkerPool pool;
+    private static SolverMetrics metrics;
+
+    @BeforeAll
+    static void start() throws IOException {
+        Loader.loadNativeLibraries();
+        metrics = new SolverMetrics();
+        pool = new WorkerPool(2, 3).withMetrics(metrics);
+    }
+
+    @AfterAll
+    static void stop() {
+        pool.close();
+    }
+
+    @Test
+    void solvesLikeTheInProcessBackend() {
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(21, 150).generate(fleet);
+        SelectionEngine.ModelExtension noOp = (model, table, isAssigned) -> { };
+
+        PlanResult inProcess = new SelectionEngine().addExtension(noOp).solve(fleet);
+        PlanResult remote = new SelectionEngine().addExtension(noOp).withBackend(pool).solve(fleet);
+
+        assertEquals(CpSolverStatus.OPTIMAL, remote.status);
+        assertEquals(inProcess.objectiveValue, remote.objectiveValue, 1e-6);
+        assertEquals(inProcess.assignedCount(), remote.assignedCount());
+    }
+
+    @Test
+    void survivesTheDeathOfEveryWorker() {
+        long crashesBefore = pool.crashes();
+        ProcessHandle.current().children().forEach(ProcessHandle::destroyForcibly);
+        FleetTable fleet = new FleetTable();
+        new FleetGenerator(22, 50).generate(fleet);
+
+        PlanResult result = new SelectionEngine().addExtension((model, table, isAssigned) -> { })
+                .withBackend(pool).solve(fleet);
+
+        assertEquals(CpSolverStatus.OPTIMAL, result.status);
+        assertTrue(pool.crashes() > crashesBefore);
+        Object crashes = ((Map<?, ?>) metrics.snapshot().get("workers")).get("crashes");
+        assertEquals(pool.crashes(), crashes);
+    }
+
+    @Test
+    void waitsForAWorkerOnlyUntilTheDeadline() throws IOException, InterruptedException {
+        try (WorkerPool single = new WorkerPool(1, 1)) {
+            CompletableFuture<CpSolverResponse> busy = occupy(single);
+            FleetTable fleet = FleetTable.of(SolverServiceTest.input(5, 2));
+            SelectionEngine engine = new SelectionEngine().addExtension((model, table, isAssigned) -> { })
+                    .withBackend(single);
+
+            long start = System.nanoTime();
+            IllegalStateException failure = assertThrows(IllegalStateException.class,
+                    () -> engine.solve(fleet, null, new SolveHandle(Duration.ofMillis(300))));
+
+            assertTrue(failure.getMessage().contains("deadline"), failure.getMessage());
+            assertTrue(System.nanoTime() - start < 1_000_000_000L);
+            assertFalse(busy.isDone());
+            busy.join();
+        }
+    }
+
+    @Test
+    void cancellingEndsTheWaitForAWorker() throws IOException, InterruptedException {
+        try (WorkerPool single = new WorkerPool(1, 1)) {
+            CompletableFuture<CpSolverResponse> busy = occupy(single);
+            FleetTable fleet = FleetTable.of(SolverServiceTest.input(5, 2));
+            SolveHandle handle = new SolveHandle();
+            CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS).execute(handle::cancel);
+
+            PlanResult result = new SelectionEngine().addExtension((model, table, isAssigned) -> { })
+                    .withBackend(single).solve(fleet, null, handle);
+
+            assertEquals(CpSolverStatus.UNKNOWN, result.status);
+            assertTrue(result.interrupted);
+            assertFalse(busy.isDone());
+            busy.join();
+        }
+    }
+
+    /**
+     * Keeps the pool's only worker busy for about two seconds with a knapsack it cannot prove optimal sooner.
+     */
+    private static CompletableFuture<CpSolverResponse> occupy(WorkerPool single) throws InterruptedException {
+        CpModel model = new CpModel();
+        SplittableRandom random = new SplittableRandom(7);
+        IntVar[] take = new IntVar[300];
+        LinearExprBuilder value = LinearExpr.newBuilder();
+        for (int i = 0; i < take.length; i++) {
+            take[i] = model.newBoolVar("take_" + i);
+            value.addTerm(take[i], 1000 + random.nextInt(1000));
+        }
+        for (int d = 0; d < 5; d++) {
+            LinearExprBuilder weight = LinearExpr.newBuilder();
+            for (IntVar v : take) {
+                weight.addTerm(v, 1000 + random.nextInt(1000));
+            }
+            model.addLessOrEqual(weight, 150_000);
+        }
+        model.maximize(value);
+        SatParameters parameters = SatParameters.newBuilder().setNumWorkers(1).setMaxTimeInSeconds(2).build();
+        CompletableFuture<CpSolverResponse> busy = CompletableFuture.supplyAsync(() -> single.solve(model, parameters));
+        Thread.sleep(300); // Long enough for the solve to take the worker.
+        return busy;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpSolverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YardPlannerTest {
+
+    private final YardPlanner planner = new YardPlanner(new SelectionEngine());
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void findsTheFewestShuntsOfAnyParking() {
+        Random random = new Random(111);
+        for (int round = 0; round < 10; round++) {
+            Main.InputData data = yard(random, 7, 3, 3, 2);
+            FleetTable fleet = FleetTable.of(data);
+
+            YardPlanner.YardPlan plan = planner.plan(fleet);
+
+            assertEquals(CpSolverStatus.OPTIMAL, plan.status);
+            assertEquals(fewestShunts(data), plan.shuntingMoves, "round " + round);
+            assertConsistent(fleet, plan);
+        }
+    }
+
+    @Test
+    void needsNoShuntsWithATrackPerTrain() {
+        Main.InputData data = yard(new Random(112), 4, 4, 4, 4);
+
+        YardPlanner.YardPlan plan = planner.plan(FleetTable.of(data));
+
+        assertEquals(0, plan.shuntingMoves);
+    }
+
+    @Test
+    void rejectsAYardThatIsTooSmall() {
+        Main.InputData data = yard(new Random(113), 5, 2, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(FleetTable.of(data)));
+    }
+
+    /**
+     * {@code trains} stabled trains in random arrival and departure orders, one of which stays in the yard,
+     * and one track per capacity given.
+     */
+    private static Main.InputData yard(Random random, int trains, int... capacities) {
+        Main.InputData data = SolverServiceTest.input(trains, 0);
+        List<Integer> arrivals = new ArrayList<>();
+        List<Integer> departures = new ArrayList<>();
+        for (int k = 1; k <= trains; k++) {
+            arrivals.add(k);
+            departures.add(k < trains ? k : 0);
+        }
+        Collections.shuffle(arrivals, random);
+        Collections.shuffle(departures, random);
+        for (int i = 0; i < trains; i++) {
+            data.trains.get(i).arrivalOrder = arrivals.get(i);
+            data.trains.get(i).departureOrder = departures.get(i);
+        }
+        data.config.tracks = new ArrayList<>();
+        for (int t = 0; t < capacities.length; t++) {
+            Main.Track track = new Main.Track();
+            track.id = "Y" + t;
+            track.capacity = capacities[t];
+            data.config.tracks.add(track);
+        }
+        return data;
+    }
+
+    /**
+     * Tries every track for every train, by brute force.
+     */
+    private static long fewestShunts(Main.InputData data) {
+        List<Main.Train> byArrival = new ArrayList<>(data.trains);
+        byArrival.sort((a, b) -> Integer.compare(a.arrivalOrder, b.arrivalOrder));
+        int tracks = data.config.tracks.size();
+        long best = Long.MAX_VALUE;
+        int[] choice = new int[byArrival.size()];
+        for (long code = 0; code < Math.pow(tracks, choice.length); code++) {
+            long rest = code;
+            for (int k = 0; k < choice.length; k++) {
+                choice[k] = (int) (rest % tracks);
+                rest /= tracks;
+            }
+            int[] load = new int[tracks];
+            int[] earliest = new int[tracks];
+            Arrays.fill(earliest, Integer.MAX_VALUE);
+            long shunts = 0;
+            boolean fits = true;
+            for (int k = 0; k < choice.length; k++) {
+                int t = choice[k];
+                fits &= ++load[t] <= data.config.tracks.get(t).capacity;
+                int departure = departureRank(byArrival.get(k));
+                if (departure > earliest[t]) {
+                    shunts++;
+                }
+                earliest[t] = Math.min(earliest[t], departure);
+            }
+            if (fits) {
+                best = Math.min(best, shunts);
+            }
+        }
+        return best;
+    }
+
+    private static void assertConsistent(FleetTable fleet, YardPlanner.YardPlan plan) {
+        long shunts = 0;
+        int parked = 0;
+        for (int t = 0; t < plan.tracks.size(); t++) {
+            List<String> ids = plan.tracks.get(t).trainIds;
+            assertTrue(ids.size() <= fleet.config().tracks.get(t).capacity);
+            int earliest = Integer.MAX_VALUE;
+            int lastArrival = 0;
+            for (String id : ids) {
+                int i = fleet.indexOf(id);
+                assertTrue(fleet.arrivalOrder(i) > lastArrival, "a track lists its trains in arrival order");
+                lastArrival = fleet.arrivalOrder(i);
+                int departure = departureRank(fleet.train(i));
+                if (departure > earliest) {
+                    shunts++;
+                }
+                earliest = Math.min(earliest, departure);
+                parked++;
+            }
+        }
+        assertEquals(fleet.size(), parked);
+        assertEquals(plan.shuntingMoves, shunts);
+        assertEquals(plan.shuntingMoves, plan.blockers.size());
+    }
+
+    private static int departureRank(Main.Train train) {
+        return train.departureOrder > 0 ? train.departureOrder : Integer.MAX_VALUE - 1;
+    }
+}